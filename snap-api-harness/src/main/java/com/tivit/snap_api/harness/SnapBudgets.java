@@ -0,0 +1,77 @@
+package com.tivit.snap_api.harness;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Checked-in limits per request, {@code <key>.statements} and {@code <key>.allocatedBytes}. Recording
+ * adds headroom to the allocation only, since statement counts are deterministic.
+ */
+public class SnapBudgets {
+    static final double ALLOCATION_HEADROOM = 1.25;
+    private static final String HEADER = """
+            # Orcamento por requisicao dos endpoints gerados: <recurso>.<endpoint>.statements e .allocatedBytes
+            # Gerado com: mvn verify -Dsnap.harness.record=true (alocacao com 25% de folga); revise o diff antes de commitar
+            """;
+
+    private final Properties budgets;
+
+    private SnapBudgets(Properties budgets) {
+        this.budgets = budgets;
+    }
+
+    public static SnapBudgets load(Path file) throws IOException {
+        Properties budgets = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            budgets.load(reader);
+        } catch (NoSuchFileException e) {
+            // every measurement is then reported as missing a budget
+        }
+        return new SnapBudgets(budgets);
+    }
+
+    public static void record(Path file, Map<String, SnapMeasurement> measurements) throws IOException {
+        StringBuilder content = new StringBuilder(HEADER);
+        for (Map.Entry<String, SnapMeasurement> entry : new TreeMap<>(measurements).entrySet()) {
+            SnapMeasurement measurement = entry.getValue();
+            content.append(entry.getKey()).append(".statements=").append(measurement.statements()).append('\n')
+                    .append(entry.getKey()).append(".allocatedBytes=")
+                    .append((long) Math.ceil(measurement.allocatedBytes() * ALLOCATION_HEADROOM)).append('\n');
+        }
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    public List<String> check(Map<String, SnapMeasurement> measurements) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, SnapMeasurement> entry : new TreeMap<>(measurements).entrySet()) {
+            String key = entry.getKey();
+            SnapMeasurement measurement = entry.getValue();
+            check(violations, key + ".statements", measurement.statements());
+            check(violations, key + ".allocatedBytes", measurement.allocatedBytes());
+        }
+        return violations;
+    }
+
+    public Set<String> unused(Map<String, SnapMeasurement> measurements) {
+        Set<String> unused = new TreeSet<>(budgets.stringPropertyNames());
+        measurements.keySet().forEach(key -> {
+            unused.remove(key + ".statements");
+            unused.remove(key + ".allocatedBytes");
+        });
+        return unused;
+    }
+
+    private void check(List<String> violations, String key, long measured) {
+        String budget = budgets.getProperty(key);
+        if (budget == null) {
+            violations.add(key + ": no budget (measured " + measured + ")");
+        } else if (measured > Long.parseLong(budget.trim())) {
+            violations.add(key + ": measured " + measured + ", budget " + budget.trim());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.tivit.snap_api.harness;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.Endpoint;
+import com.tivit.snap_api.partition.SnapPartitionedStore;
+import com.tivit.snap_api.sync.SnapSyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Drives every exposed endpoint of a resource over HTTP, one request at a time, and collects the
+ * measurements keyed as {@code <resource>.<endpoint>}.
+ */
+public class SnapEndpointExerciser {
+    private static final Logger log = LoggerFactory.getLogger(SnapEndpointExerciser.class);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final URI baseUri;
+    private final SnapMeasuringFilter measuringFilter;
+    private final ObjectMapper objectMapper;
+    private final SnapSyncService syncService;
+    private final SnapPartitionedStore partitionedStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int rows;
+    private final int iterations;
+
+    public SnapEndpointExerciser(URI baseUri, SnapMeasuringFilter measuringFilter, ObjectMapper objectMapper,
+                                 SnapSyncService syncService, SnapPartitionedStore partitionedStore,
+                                 PlatformTransactionManager transactionManager, int rows, int iterations) {
+        this.baseUri = baseUri;
+        this.measuringFilter = measuringFilter;
+        this.objectMapper = objectMapper;
+        this.syncService = syncService;
+        this.partitionedStore = partitionedStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rows = rows;
+        this.iterations = iterations;
+    }
+
+    public Map<String, SnapMeasurement> exercise(SnapResourceMeta meta) throws Exception {
+        String resource = meta.path().replaceFirst("^/", "");
+        String name = resource.replace('/', '.');
+        String idField = SnapSampleData.idField(meta.entityClass());
+        Map<String, SnapMeasurement> results = new LinkedHashMap<>();
+        List<String> ids = new ArrayList<>();
+
+        if (meta.isEndpointEnabled(Endpoint.CREATE)) {
+            List<String> trackingIds = new ArrayList<>();
+            results.put(name + ".CREATE", measure(name + ".CREATE", rows,
+                    seq -> json(resource, "").POST(body(SnapSampleData.body(meta, seq))),
+                    response -> {
+                        if (response.has("trackingId")) {
+                            trackingIds.add(response.get("trackingId").asText());
+                        } else {
+                            ids.add(response.get(idField).asText());
+                        }
+                    }, 201, 202));
+            awaitIngest(resource, trackingIds);
+        } else {
+            ids.addAll(seed(meta, idField));
+        }
+
+        if (meta.isEndpointEnabled(Endpoint.GET_ALL)) {
+            results.put(name + ".GET_ALL", measure(name + ".GET_ALL", iterations,
+                    seq -> json(resource, "?page=0&size=" + rows).GET(), response -> {
+                    }, 200));
+            if (ids.isEmpty()) {
+                ids.addAll(listIds(resource, idField));
+            }
+
+            for (String field : meta.searchableFields()) {
+                Object value = SnapSampleData.value(meta, field, 0);
+                if (value == null) {
+                    log.warn("No sample value for {}.{}, skipping its filter", name, field);
+                    continue;
+                }
+                String key = name + ".GET_ALL[" + field + "]";
+                results.put(key, measure(key, iterations,
+                        seq -> json(resource, "?" + field + "=" + encode(value) + "&size=" + rows).GET(), response -> {
+                        }, 200));
+            }
+
+            if (!meta.aggregatableFields().isEmpty()) {
+                String metrics = "count," + meta.aggregatableFields().stream()
+                        .map(field -> "sum:" + field)
+                        .collect(Collectors.joining(","));
+                String groupBy = meta.searchableFields().isEmpty() ? "" : "&groupBy=" + meta.searchableFields().get(0);
+                results.put(name + ".AGGREGATE", measure(name + ".AGGREGATE", iterations,
+                        seq -> json(resource, "/_aggregate?metrics=" + encode(metrics) + groupBy).GET(), response -> {
+                        }, 200));
+            }
+
+            if (meta.isSyncEnabled()) {
+                results.put(name + ".SYNC", measure(name + ".SYNC", iterations,
+                        seq -> json(resource, "?since=0").GET(), response -> {
+                        }, 200));
+            }
+        }
+
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Nenhum id disponível para exercitar os endpoints por id de " + name);
+        }
+        String id = encode(ids.get(0));
+
+        if (meta.isEndpointEnabled(Endpoint.GET_BY_ID)) {
+            results.put(name + ".GET_BY_ID", measure(name + ".GET_BY_ID", iterations,
+                    seq -> json(resource, "/" + id).GET(), response -> {
+                    }, 200));
+        }
+
+        if (meta.isEndpointEnabled(Endpoint.EDIT)) {
+            results.put(name + ".EDIT", measure(name + ".EDIT", iterations,
+                    seq -> json(resource, "/" + id).PUT(body(SnapSampleData.body(meta, rows + seq))), response -> {
+                    }, 200));
+        }
+
+        if (meta.isEndpointEnabled(Endpoint.DELETE)) {
+            List<String> deletable = ids.subList(Math.max(1, ids.size() - iterations), ids.size());
+            if (deletable.isEmpty()) {
+                throw new IllegalStateException("Linhas insuficientes para exercitar DELETE em " + name);
+            }
+            results.put(name + ".DELETE", measure(name + ".DELETE", deletable.size(),
+                    seq -> json(resource, "/" + encode(deletable.get(seq))).DELETE(), response -> {
+                    }, 204));
+        }
+
+        List<Map<String, Object>> operations = new ArrayList<>();
+        if (meta.isEndpointEnabled(Endpoint.GET_ALL)) {
+            operations.add(Map.of("method", "GET", "resource", resource, "query", Map.of("size", String.valueOf(rows))));
+        }
+        if (meta.isEndpointEnabled(Endpoint.GET_BY_ID)) {
+            operations.add(Map.of("method", "GET", "resource", resource, "id", ids.get(0)));
+        }
+        if (!operations.isEmpty()) {
+            Map<String, Object> batch = Map.of("atomic", false, "operations", operations);
+            results.put(name + ".BATCH", measure(name + ".BATCH", iterations,
+                    seq -> json("_batch", "").POST(body(batch)), response -> {
+                    }, 200));
+        }
+
+        if (meta.isEndpointEnabled(Endpoint.CREATE) && !meta.isPartitioned()) {
+            results.put(name + ".IMPORT", measure(name + ".IMPORT", iterations,
+                    seq -> json(resource, "/_import?format=ndjson").POST(ndjson(meta, rows * (seq + 2))), response -> {
+                    }, 200));
+        }
+
+        if (meta.isEndpointEnabled(Endpoint.GET_ALL)) {
+            results.put(name + ".CHANGES", measureStream(name + ".CHANGES", iterations,
+                    seq -> HttpRequest.newBuilder(baseUri.resolve(resource + "/_changes"))
+                            .header("Accept", "text/event-stream")
+                            .header("Last-Event-ID", "0")
+                            .GET()));
+        }
+
+        return results;
+    }
+
+    private SnapMeasurement measure(String key, int times, IntFunction<HttpRequest.Builder> request,
+                                    Consumer<JsonNode> onResponse, int... expectedStatus) throws Exception {
+        SnapMeasurement combined = null;
+        for (int seq = 0; seq < times; seq++) {
+            String requestId = key + "#" + seq;
+            HttpResponse<String> response = client.send(
+                    request.apply(seq).setHeader(SnapMeasuringFilter.HARNESS_HEADER, requestId).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            SnapMeasurement measurement = measuringFilter.take(requestId);
+
+            if (Arrays.stream(expectedStatus).noneMatch(status -> status == response.statusCode())) {
+                throw new IllegalStateException(
+                        key + " respondeu " + response.statusCode() + ": " + response.body());
+            }
+            if (!response.body().isEmpty()) {
+                onResponse.accept(objectMapper.readTree(response.body()));
+            }
+            combined = combined == null ? measurement : combined.combine(measurement);
+        }
+        log.info("{}: {} statements, {} bytes", key, combined.statements(), combined.allocatedBytes());
+        return combined;
+    }
+
+    /**
+     * The change feed never ends the response; the subscription and the replay are measured once the
+     * headers arrive, then the connection is closed.
+     */
+    private SnapMeasurement measureStream(String key, int times, IntFunction<HttpRequest.Builder> request)
+            throws Exception {
+        SnapMeasurement combined = null;
+        for (int seq = 0; seq < times; seq++) {
+            String requestId = key + "#" + seq;
+            HttpResponse<InputStream> response = client.send(
+                    request.apply(seq).setHeader(SnapMeasuringFilter.HARNESS_HEADER, requestId).build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream ignored = response.body()) {
+                SnapMeasurement measurement = measuringFilter.take(requestId);
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException(key + " respondeu " + response.statusCode());
+                }
+                combined = combined == null ? measurement : combined.combine(measurement);
+            }
+        }
+        log.info("{}: {} statements, {} bytes", key, combined.statements(), combined.allocatedBytes());
+        return combined;
+    }
+
+    /**
+     * Async ingest flushes on its own thread; waiting for it keeps those statements out of the next
+     * measured request.
+     */
+    private void awaitIngest(String resource, List<String> trackingIds) throws Exception {
+        for (String trackingId : trackingIds) {
+            for (int attempt = 0; ; attempt++) {
+                HttpResponse<String> response = client.send(json(resource, "/_ingest/" + trackingId).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                String status = response.statusCode() == 200
+                        ? objectMapper.readTree(response.body()).path("status").asText()
+                        : "PENDING";
+                if (status.equals("COMMITTED")) {
+                    break;
+                }
+                if (status.equals("FAILED") || attempt == 100) {
+                    throw new IllegalStateException("Ingest " + trackingId + " não foi confirmado: " + response.body());
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> seed(SnapResourceMeta meta, String idField) {
+        JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) meta.repository();
+        List<String> ids = new ArrayList<>();
+        for (int seq = 0; seq < rows; seq++) {
+            Object entity = objectMapper.convertValue(SnapSampleData.body(meta, seq), meta.entityClass());
+            Object saved = meta.isPartitioned()
+                    ? partitionedStore.create(meta, entity)
+                    : transactionTemplate.execute(status -> {
+                        syncService.stamp(meta, entity);
+                        return repo.save(entity);
+                    });
+            ids.add(objectMapper.valueToTree(saved).get(idField).asText());
+        }
+        return ids;
+    }
+
+    private List<String> listIds(String resource, String idField) throws Exception {
+        HttpResponse<String> response = client.send(json(resource, "?size=" + rows).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<String> ids = new ArrayList<>();
+        for (JsonNode entity : objectMapper.readTree(response.body()).path("content")) {
+            ids.add(entity.get(idField).asText());
+        }
+        return ids;
+    }
+
+    private HttpRequest.Builder json(String resource, String suffix) {
+        return HttpRequest.newBuilder(baseUri.resolve(resource + suffix))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher body(Map<String, Object> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to serialize sample body: " + e.getMessage(), e);
+        }
+    }
+
+    private HttpRequest.BodyPublisher ndjson(SnapResourceMeta meta, int firstSeq) {
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (int seq = firstSeq; seq < firstSeq + rows; seq++) {
+                lines.append(objectMapper.writeValueAsString(SnapSampleData.body(meta, seq))).append('\n');
+            }
+            return HttpRequest.BodyPublishers.ofString(lines.toString());
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to serialize sample body: " + e.getMessage(), e);
+        }
+    }
+
+    private static String encode(Object value) {
+        return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8);
+    }
+}
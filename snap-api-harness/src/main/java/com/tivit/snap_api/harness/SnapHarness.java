@@ -0,0 +1,115 @@
+package com.tivit.snap_api.harness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.Main;
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapReadExecutor;
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.Endpoint;
+import com.tivit.snap_api.partition.SnapPartitionedStore;
+import com.tivit.snap_api.sync.SnapSyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots snap-api on an in-memory H2, exercises every endpoint of every registered resource and
+ * compares the measurements against the budgets file. Exits with 1 when a budget is exceeded or
+ * missing, which fails the Maven build.
+ */
+public final class SnapHarness {
+    private static final Logger log = LoggerFactory.getLogger(SnapHarness.class);
+
+    private SnapHarness() {
+    }
+
+    public static void main(String[] args) {
+        Path budgetsFile = Path.of(args.length > 0 ? args[0] : "budgets.properties");
+        boolean record = Boolean.getBoolean("snap.harness.record");
+        boolean benchmark = Boolean.getBoolean("snap.harness.benchmark");
+        int rows = Integer.getInteger("snap.harness.rows", 20);
+        int iterations = Integer.getInteger("snap.harness.iterations", 5);
+
+        int exitCode;
+        // command-line arguments, unlike default properties, take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:snap-harness",
+                "--spring.h2.console.enabled=false",
+                "--snap.api.warmup.enabled=false",
+                "--snap.api.ingest.spill-directory=target/snap-ingest")) {
+            exitCode = benchmark ? benchmark(context) : run(context, budgetsFile, record, rows, iterations);
+        } catch (Exception e) {
+            log.error("Harness run failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static int benchmark(ConfigurableApplicationContext context) {
+        SnapReadBenchmark benchmark = new SnapReadBenchmark(
+                context.getBean(SnapReadExecutor.class),
+                context.getBean(SnapSyncService.class),
+                context.getBean(ObjectMapper.class),
+                context.getBean(PlatformTransactionManager.class),
+                Integer.getInteger("snap.harness.benchmark.rows", 5000),
+                Integer.getInteger("snap.harness.benchmark.page-size", 500),
+                Integer.getInteger("snap.harness.benchmark.iterations", 200));
+        SnapRegistry.getAll().stream()
+                .filter(meta -> meta.isEndpointEnabled(Endpoint.GET_ALL) && !meta.isPartitioned())
+                .sorted(Comparator.comparing(SnapResourceMeta::path))
+                .forEach(benchmark::run);
+        return 0;
+    }
+
+    private static int run(ConfigurableApplicationContext context, Path budgetsFile, boolean record,
+                           int rows, int iterations) throws Exception {
+        String port = context.getEnvironment().getRequiredProperty("local.server.port");
+        String basePath = context.getBean(SnapApiProperties.class).getBasePath();
+        SnapEndpointExerciser exerciser = new SnapEndpointExerciser(
+                URI.create("http://localhost:" + port + basePath + "/"),
+                context.getBean(SnapMeasuringFilter.class),
+                context.getBean(ObjectMapper.class),
+                context.getBean(SnapSyncService.class),
+                context.getBean(SnapPartitionedStore.class),
+                context.getBean(PlatformTransactionManager.class),
+                rows,
+                iterations);
+
+        List<SnapResourceMeta> resources = SnapRegistry.getAll().stream()
+                .sorted(Comparator.comparing(SnapResourceMeta::path))
+                .toList();
+        Map<String, SnapMeasurement> measurements = new LinkedHashMap<>();
+        for (SnapResourceMeta meta : resources) {
+            measurements.putAll(exerciser.exercise(meta));
+        }
+
+        if (record) {
+            SnapBudgets.record(budgetsFile, measurements);
+            log.info("Recorded {} budgets for {} resources in {}", measurements.size(), resources.size(), budgetsFile);
+            return 0;
+        }
+
+        SnapBudgets budgets = SnapBudgets.load(budgetsFile);
+        budgets.unused(measurements).forEach(key -> log.warn("Budget {} matches no endpoint, remove it", key));
+        List<String> violations = budgets.check(measurements);
+        if (violations.isEmpty()) {
+            log.info("All {} endpoints of {} resources are within budget", measurements.size(), resources.size());
+            return 0;
+        }
+
+        violations.forEach(violation -> log.error("Budget exceeded - {}", violation));
+        log.error("Rerun with -Dsnap.harness.record=true if the increase is intended");
+        return 1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.tivit.snap_api.harness;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SnapHarnessConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(SnapStatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+}
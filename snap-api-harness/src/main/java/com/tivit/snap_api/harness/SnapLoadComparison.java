@@ -0,0 +1,111 @@
+package com.tivit.snap_api.harness;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against running snap-api instances, one target after the other with the
+ * same requests, to compare the MVC engine with snap-api-reactive on the same database.
+ * <p>
+ * Targets, paths and load come from system properties, for example:
+ * {@code -Dsnap.load.targets=mvc=http://localhost:8080/api,reactive=http://localhost:8081/api
+ * -Dsnap.load.paths=produtos?size=20,produtos/1 -Dsnap.load.concurrency=64 -Dsnap.load.duration=PT30S}
+ */
+public final class SnapLoadComparison {
+    private static final Logger log = LoggerFactory.getLogger(SnapLoadComparison.class);
+
+    private SnapLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, URI> targets = new LinkedHashMap<>();
+        for (String target : System.getProperty("snap.load.targets",
+                "mvc=http://localhost:8080/api,reactive=http://localhost:8081/api").split(",")) {
+            String[] parts = target.split("=", 2);
+            targets.put(parts[0].trim(), URI.create(parts[1].trim() + "/"));
+        }
+        List<String> paths = List.of(System.getProperty("snap.load.paths", "produtos?size=20,produtos/1").split(","));
+        int concurrency = Integer.getInteger("snap.load.concurrency", 64);
+        Duration warmup = Duration.parse(System.getProperty("snap.load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("snap.load.duration", "PT30S"));
+
+        for (String path : paths) {
+            for (Map.Entry<String, URI> target : targets.entrySet()) {
+                URI uri = target.getValue().resolve(path.trim());
+                run(uri, concurrency, warmup);
+                Result result = run(uri, concurrency, duration);
+                log.info("{} {}: {} req/s, p50 {} ms, p99 {} ms, max {} ms, {} errors ({} clients)",
+                        target.getKey(), path.trim(), String.format("%.0f", result.throughput()),
+                        millis(result.percentile(0.50)), millis(result.percentile(0.99)),
+                        millis(result.percentile(1.0)), result.errors(), concurrency);
+            }
+        }
+    }
+
+    static Result run(URI uri, int concurrency, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Accept", "application/json").GET().build();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<List<Long>>> futures = new ArrayList<>(concurrency);
+        long began = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    latencies.add(System.nanoTime() - sent);
+                }
+                return latencies;
+            }));
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            latencies.addAll(future.get());
+        }
+        long elapsed = System.nanoTime() - began;
+        clients.shutdownNow();
+        return new Result(latencies.stream().mapToLong(Long::longValue).sorted().toArray(), elapsed, errors.get());
+    }
+
+    static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    record Result(long[] latencies, long elapsedNanos, long errors) {
+
+        double throughput() {
+            return latencies.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        long percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.tivit.snap_api.harness;
+
+public record SnapMeasurement(long statements, long allocatedBytes) {
+
+    /**
+     * Keeps the worst statement count, so a path that only queries on a cold cache still counts,
+     * and the lowest allocation, which is the least affected by JIT and GC noise.
+     */
+    public SnapMeasurement combine(SnapMeasurement other) {
+        return new SnapMeasurement(Math.max(statements, other.statements),
+                Math.min(allocatedBytes, other.allocatedBytes));
+    }
+}
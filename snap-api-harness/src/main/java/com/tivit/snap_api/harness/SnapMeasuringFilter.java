@@ -0,0 +1,103 @@
+package com.tivit.snap_api.harness;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures requests tagged with X-Snap-Harness: SQL statements and bytes allocated by the request
+ * thread, including the response serialization, plus the batch and shard worker threads that
+ * serve parts of the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SnapMeasuringFilter extends OncePerRequestFilter {
+    public static final String HARNESS_HEADER = "X-Snap-Harness";
+    private static final List<String> WORKER_PREFIXES = List.of("snap-batch-", "snap-shard-");
+
+    private final SnapStatementCounter statementCounter;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Map<String, CompletableFuture<SnapMeasurement>> measurements = new ConcurrentHashMap<>();
+
+    public SnapMeasuringFilter(SnapStatementCounter statementCounter) {
+        this.statementCounter = statementCounter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(HARNESS_HEADER);
+        if (requestId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        statementCounter.reset();
+        Map<Long, Long> workersBefore = workerAllocations();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            for (Map.Entry<Long, Long> worker : workerAllocations().entrySet()) {
+                allocated += worker.getValue() - workersBefore.getOrDefault(worker.getKey(), 0L);
+            }
+            future(requestId).complete(new SnapMeasurement(statementCounter.get(), allocated));
+        }
+    }
+
+    /**
+     * The client can read the whole response before this filter unwinds, so the caller waits for it.
+     */
+    public SnapMeasurement take(String requestId) throws Exception {
+        try {
+            return future(requestId).get(10, TimeUnit.SECONDS);
+        } finally {
+            measurements.remove(requestId);
+        }
+    }
+
+    /**
+     * The worker pools are fixed, so a thread id seen before and after the request is the same
+     * thread; one started during the request counts from zero.
+     */
+    private Map<Long, Long> workerAllocations() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] all = new Thread[root.activeCount() * 2];
+        int count = root.enumerate(all, true);
+
+        Map<Long, Long> allocations = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Thread thread = all[i];
+            if (WORKER_PREFIXES.stream().anyMatch(thread.getName()::startsWith)) {
+                long allocated = threads.getThreadAllocatedBytes(thread.getId());
+                if (allocated >= 0) {
+                    allocations.put(thread.getId(), allocated);
+                }
+            }
+        }
+        return allocations;
+    }
+
+    private CompletableFuture<SnapMeasurement> future(String requestId) {
+        return measurements.computeIfAbsent(requestId, id -> new CompletableFuture<>());
+    }
+}
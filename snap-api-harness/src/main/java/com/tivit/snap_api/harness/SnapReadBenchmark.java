@@ -0,0 +1,97 @@
+package com.tivit.snap_api.harness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.core.SnapReadExecutor;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.sync.SnapSyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compares the list read paths on the same rows: the Spring Data repository in a read-only
+ * transaction (the path before SnapReadExecutor) and SnapReadExecutor with the read-only hints.
+ * Reports time and bytes allocated per page on this thread.
+ */
+public class SnapReadBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(SnapReadBenchmark.class);
+
+    private final SnapReadExecutor readExecutor;
+    private final SnapSyncService syncService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTemplate;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final int rows;
+    private final int pageSize;
+    private final int iterations;
+
+    public SnapReadBenchmark(SnapReadExecutor readExecutor, SnapSyncService syncService, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager, int rows, int pageSize, int iterations) {
+        this.readExecutor = readExecutor;
+        this.syncService = syncService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.rows = rows;
+        this.pageSize = pageSize;
+        this.iterations = iterations;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void run(SnapResourceMeta meta) {
+        seed(meta);
+        JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) meta.repository();
+        Pageable pageable = PageRequest.of(0, pageSize);
+
+        Map<String, Supplier<Object>> modes = new LinkedHashMap<>();
+        modes.put("repository", () -> readTemplate.execute(status -> repo.findAll(pageable)));
+        modes.put("read-only-hints", () -> readTemplate.execute(status -> readExecutor.findAll(meta, null, pageable)));
+
+        for (Map.Entry<String, Supplier<Object>> mode : modes.entrySet()) {
+            // warm each path up before timing it, so the JIT does not favour the last one
+            repeat(mode.getValue());
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long began = System.nanoTime();
+            repeat(mode.getValue());
+            long elapsed = System.nanoTime() - began;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+            log.info("{} {}: {} us/page, {} bytes/page ({} rows per page)", meta.path(), mode.getKey(),
+                    elapsed / 1000 / iterations, allocated / iterations, pageSize);
+        }
+    }
+
+    private void repeat(Supplier<Object> read) {
+        for (int i = 0; i < iterations; i++) {
+            read.get();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void seed(SnapResourceMeta meta) {
+        JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) meta.repository();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object> entities = new ArrayList<>(rows);
+            for (int seq = 0; seq < rows; seq++) {
+                Object entity = objectMapper.convertValue(SnapSampleData.body(meta, seq), meta.entityClass());
+                syncService.stamp(meta, entity);
+                entities.add(entity);
+            }
+            repo.saveAll(entities);
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package com.tivit.snap_api.harness;
+
+import com.tivit.snap_api.core.SnapResourceMeta;
+import jakarta.persistence.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Request bodies for the generated endpoints, built from the entity fields. The same sequence number
+ * always yields the same values, so filters can target a known row.
+ */
+final class SnapSampleData {
+
+    private SnapSampleData() {
+    }
+
+    static Map<String, Object> body(SnapResourceMeta meta, int seq) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        for (Field field : fieldsOf(meta.entityClass())) {
+            if (field.getName().equals(meta.syncField())) {
+                continue;
+            }
+            if (field.isAnnotationPresent(Id.class)
+                    && (field.isAnnotationPresent(GeneratedValue.class) || meta.isPartitioned())) {
+                continue;
+            }
+            Object value = sample(field, seq);
+            if (value != null) {
+                body.put(field.getName(), value);
+            }
+        }
+        return body;
+    }
+
+    static Object value(SnapResourceMeta meta, String fieldPath, int seq) {
+        Class<?> type = meta.entityClass();
+        Field field = null;
+        for (String part : fieldPath.split("\\.")) {
+            field = fieldOf(type, part);
+            if (field == null) {
+                return null;
+            }
+            type = field.getType();
+        }
+        return sample(field, seq);
+    }
+
+    static String idField(Class<?> entityClass) {
+        return fieldsOf(entityClass).stream()
+                .filter(field -> field.isAnnotationPresent(Id.class))
+                .map(Field::getName)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "Entidade " + entityClass.getSimpleName() + " não declara um campo @Id"));
+    }
+
+    private static Object sample(Field field, int seq) {
+        Class<?> type = field.getType();
+        if (field.isAnnotationPresent(Embedded.class) || type.isAnnotationPresent(Embeddable.class)) {
+            Map<String, Object> embedded = new LinkedHashMap<>();
+            for (Field nested : fieldsOf(type)) {
+                Object value = sample(nested, seq);
+                if (value != null) {
+                    embedded.put(nested.getName(), value);
+                }
+            }
+            return embedded;
+        }
+
+        String name = field.getName();
+        if (type == String.class) {
+            return "harness-" + name + "-" + seq;
+        } else if (type == Integer.class || type == int.class) {
+            return seq + 1;
+        } else if (type == Long.class || type == long.class) {
+            return seq + 1L;
+        } else if (type == Short.class || type == short.class) {
+            return (short) (seq + 1);
+        } else if (type == Double.class || type == double.class) {
+            return seq + 0.5;
+        } else if (type == Float.class || type == float.class) {
+            return seq + 0.5f;
+        } else if (type == BigDecimal.class) {
+            return BigDecimal.valueOf(1000L + seq, 2);
+        } else if (type == Boolean.class || type == boolean.class) {
+            return seq % 2 == 0;
+        } else if (type == LocalDate.class) {
+            return LocalDate.of(2024, 1, 1).plusDays(seq).toString();
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(seq).toString();
+        } else if (type == Instant.class) {
+            return Instant.parse("2024-01-01T00:00:00Z").plusSeconds(seq).toString();
+        } else if (type == UUID.class) {
+            return UUID.nameUUIDFromBytes((name + seq).getBytes(StandardCharsets.UTF_8)).toString();
+        } else if (type.isEnum()) {
+            Object[] constants = type.getEnumConstants();
+            return ((Enum<?>) constants[seq % constants.length]).name();
+        }
+        return null;
+    }
+
+    private static Field fieldOf(Class<?> type, String name) {
+        return fieldsOf(type).stream()
+                .filter(field -> field.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static List<Field> fieldsOf(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (isWritable(field)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static boolean isWritable(Field field) {
+        int modifiers = field.getModifiers();
+        return !Modifier.isStatic(modifiers)
+                && !Modifier.isTransient(modifiers)
+                && !field.isAnnotationPresent(Transient.class)
+                && !field.isAnnotationPresent(Version.class)
+                && !field.isAnnotationPresent(ManyToOne.class)
+                && !field.isAnnotationPresent(OneToOne.class)
+                && !field.isAnnotationPresent(OneToMany.class)
+                && !field.isAnnotationPresent(ManyToMany.class)
+                && !field.isAnnotationPresent(ElementCollection.class);
+    }
+}
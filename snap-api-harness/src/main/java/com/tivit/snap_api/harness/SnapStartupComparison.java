@@ -0,0 +1,100 @@
+package com.tivit.snap_api.harness;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Starts each command in turn, for example the plain jar and the fast-start CDS archive, and records
+ * the time from launch to the first 200 on the probe URL. The last start of each command is then kept
+ * up for closed-loop load, as in SnapLoadComparison, to report the steady-state latency.
+ * <p>
+ * Commands are separated by {@code |}, for example:
+ * {@code -Dsnap.startup.commands="plain=java -jar target/snap-api-0.0.1-SNAPSHOT.jar|cds=java
+ * -XX:SharedArchiveFile=target/cds/application.jsa -jar target/cds/snap-api-0.0.1-SNAPSHOT.jar"}
+ */
+public final class SnapStartupComparison {
+    private static final Logger log = LoggerFactory.getLogger(SnapStartupComparison.class);
+
+    private SnapStartupComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, List<String>> commands = new LinkedHashMap<>();
+        for (String command : System.getProperty("snap.startup.commands", "").split("\\|")) {
+            if (command.isBlank()) {
+                continue;
+            }
+            String[] parts = command.split("=", 2);
+            commands.put(parts[0].trim(), List.of(parts[1].trim().split("\\s+")));
+        }
+        if (commands.isEmpty()) {
+            throw new IllegalArgumentException("Set snap.startup.commands to name=command|name=command");
+        }
+        URI probe = URI.create(System.getProperty("snap.startup.url", "http://localhost:8080/api/produtos?size=20"));
+        int starts = Integer.getInteger("snap.startup.runs", 3);
+        Duration timeout = Duration.parse(System.getProperty("snap.startup.timeout", "PT2M"));
+        int concurrency = Integer.getInteger("snap.load.concurrency", 32);
+        Duration warmup = Duration.parse(System.getProperty("snap.load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("snap.load.duration", "PT20S"));
+
+        for (Map.Entry<String, List<String>> command : commands.entrySet()) {
+            long[] firstRequest = new long[starts];
+            SnapLoadComparison.Result first = null;
+            SnapLoadComparison.Result steady = null;
+            for (int run = 0; run < starts; run++) {
+                Process process = new ProcessBuilder(command.getValue())
+                        .redirectErrorStream(true)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .start();
+                try {
+                    firstRequest[run] = awaitFirstResponse(probe, process, timeout);
+                    if (run == starts - 1) {
+                        first = SnapLoadComparison.run(probe, concurrency, warmup);
+                        steady = SnapLoadComparison.run(probe, concurrency, duration);
+                    }
+                } finally {
+                    process.destroy();
+                    process.waitFor();
+                }
+            }
+
+            Arrays.sort(firstRequest);
+            log.info("{}: first request after {} ms (median of {}, min {}, max {})", command.getKey(),
+                    firstRequest[starts / 2] / 1_000_000, starts, firstRequest[0] / 1_000_000,
+                    firstRequest[starts - 1] / 1_000_000);
+            log.info("{}: first {} s of load p99 {} ms, then {} req/s, p50 {} ms, p99 {} ms, max {} ms ({} clients)",
+                    command.getKey(), warmup.toSeconds(), SnapLoadComparison.millis(first.percentile(0.99)),
+                    String.format("%.0f", steady.throughput()), SnapLoadComparison.millis(steady.percentile(0.50)),
+                    SnapLoadComparison.millis(steady.percentile(0.99)), SnapLoadComparison.millis(steady.percentile(1.0)),
+                    concurrency);
+        }
+    }
+
+    private static long awaitFirstResponse(URI probe, Process process, Duration timeout) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(probe).header("Accept", "application/json").GET().build();
+        long began = System.nanoTime();
+        long deadline = began + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Process exited with " + process.exitValue() + " before answering");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.nanoTime() - began;
+                }
+            } catch (java.io.IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No answer from " + probe + " within " + timeout);
+    }
+}
@@ -0,0 +1,30 @@
+package com.tivit.snap_api.harness;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts every SQL statement Hibernate prepares, on any thread, so shard fan-out is included.
+ * The harness sends one request at a time, which keeps the count attributable to that request.
+ */
+@Component
+public class SnapStatementCounter implements StatementInspector {
+
+    private final AtomicLong statements = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        statements.incrementAndGet();
+        return sql;
+    }
+
+    public void reset() {
+        statements.set(0);
+    }
+
+    public long get() {
+        return statements.get();
+    }
+}
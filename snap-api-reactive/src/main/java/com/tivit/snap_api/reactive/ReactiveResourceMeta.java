@@ -0,0 +1,25 @@
+package com.tivit.snap_api.reactive;
+
+import com.tivit.snap_api.enums.Endpoint;
+
+import java.util.List;
+import java.util.Map;
+
+public record ReactiveResourceMeta(
+        String path,
+        List<Endpoint> endpoints,
+        List<String> searchableFields,
+        Class<?> entityClass,
+        String table,
+        SnapColumn id,
+        List<SnapColumn> columns,
+        Map<String, SnapColumn> columnsByProperty
+) {
+    public boolean isEndpointEnabled(Endpoint endpoint) {
+        return endpoints.contains(endpoint);
+    }
+
+    public SnapColumn column(String property) {
+        return columnsByProperty.get(property);
+    }
+}
@@ -0,0 +1,8 @@
+package com.tivit.snap_api.reactive;
+
+/**
+ * One mapped column: the entity property path it feeds (dotted for embedded values),
+ * the column name Hibernate generates for it and the Java type used to read it.
+ */
+public record SnapColumn(String property, String column, Class<?> type, boolean enumAsString) {
+}
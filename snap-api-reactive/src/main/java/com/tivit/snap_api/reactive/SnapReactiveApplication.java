@@ -0,0 +1,11 @@
+package com.tivit.snap_api.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class SnapReactiveApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(SnapReactiveApplication.class, args);
+    }
+}
@@ -0,0 +1,111 @@
+package com.tivit.snap_api.reactive;
+
+import com.tivit.snap_api.enums.Endpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("${snap.api.base-path:/api}")
+public class SnapReactiveController {
+    private static final Logger log = LoggerFactory.getLogger(SnapReactiveController.class);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final SnapReactiveRegistry registry;
+    private final SnapReactiveEngine engine;
+    private final SnapReactiveProperties properties;
+
+    public SnapReactiveController(SnapReactiveRegistry registry, SnapReactiveEngine engine,
+                                  SnapReactiveProperties properties) {
+        this.registry = registry;
+        this.engine = engine;
+        this.properties = properties;
+    }
+
+    @GetMapping(path = "/{resource}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<?>> findAll(@PathVariable String resource,
+                                           @RequestParam Map<String, String> queryParams) {
+        ReactiveResourceMeta meta = registry.getMetaFor(resource);
+        if (meta == null || !meta.isEndpointEnabled(Endpoint.GET_ALL)) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+
+        return Mono.defer(() -> engine.findPage(meta, queryParams, toPageable(queryParams)))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(Map.of("error", "Invalid query: " + e.getMessage()))))
+                .onErrorResume(e -> {
+                    log.error("Error executing findAll for resource {}: {}", resource, e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Failed to execute query: " + e.getMessage())));
+                });
+    }
+
+    @GetMapping(path = "/{resource}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> stream(@PathVariable String resource, @RequestParam Map<String, String> queryParams) {
+        ReactiveResourceMeta meta = registry.getMetaFor(resource);
+        if (meta == null || !meta.isEndpointEnabled(Endpoint.GET_ALL)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            Flux<Map<String, Object>> rows = engine.stream(meta, queryParams, toSort(queryParams))
+                    .doOnError(e -> log.error("Error streaming resource {}: {}", resource, e.getMessage(), e));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(rows);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid query: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{resource}/{id}")
+    public Mono<ResponseEntity<?>> findById(@PathVariable String resource, @PathVariable String id) {
+        ReactiveResourceMeta meta = registry.getMetaFor(resource);
+        if (meta == null || !meta.isEndpointEnabled(Endpoint.GET_BY_ID)) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+
+        Object idValue = SnapSqlBuilder.convertValue(id, meta.id().type());
+        if (idValue == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+
+        return engine.findById(meta, idValue)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(e -> {
+                    log.error("Error finding resource {} with id {}: {}", resource, id, e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Failed to find entity: " + e.getMessage())));
+                });
+    }
+
+    private Pageable toPageable(Map<String, String> query) {
+        int page = query.containsKey("page") ? Integer.parseInt(query.get("page")) : 0;
+        int size = query.containsKey("size") ? Integer.parseInt(query.get("size")) : DEFAULT_PAGE_SIZE;
+        size = Math.max(1, Math.min(size, properties.getMaxPageSize()));
+        return PageRequest.of(Math.max(0, page), size, toSort(query));
+    }
+
+    private Sort toSort(Map<String, String> query) {
+        Sort sort = Sort.unsorted();
+        String sortParam = query.get("sort");
+        if (sortParam != null && !sortParam.isBlank()) {
+            String[] parts = sortParam.split(",");
+            Sort.Direction direction = parts.length > 1
+                    ? Sort.Direction.fromOptionalString(parts[1].trim()).orElse(Sort.Direction.ASC)
+                    : Sort.Direction.ASC;
+            sort = Sort.by(direction, parts[0].trim());
+        }
+        return sort;
+    }
+}
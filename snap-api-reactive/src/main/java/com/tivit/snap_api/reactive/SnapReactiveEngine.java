@@ -0,0 +1,108 @@
+package com.tivit.snap_api.reactive;
+
+import com.tivit.snap_api.dto.PageResponse;
+import io.r2dbc.spi.Row;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@Component
+public class SnapReactiveEngine {
+
+    private final DatabaseClient databaseClient;
+    private final SnapReactiveProperties properties;
+
+    public SnapReactiveEngine(DatabaseClient databaseClient, SnapReactiveProperties properties) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+    }
+
+    public Mono<PageResponse<Map<String, Object>>> findPage(ReactiveResourceMeta meta, Map<String, String> params,
+                                                            Pageable pageable) {
+        SnapSqlBuilder.SnapSqlQuery select = SnapSqlBuilder.select(meta, params, pageable.getSort(),
+                (long) pageable.getPageSize(), pageable.getOffset());
+        SnapSqlBuilder.SnapSqlQuery count = SnapSqlBuilder.count(meta, params);
+
+        Mono<Long> total = execute(count)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+        return Mono.zip(rows(meta, select).collectList(), total)
+                .map(result -> PageResponse.from(new PageImpl<>(result.getT1(), pageable, result.getT2())));
+    }
+
+    /**
+     * Rows are pulled from the driver as the subscriber requests them, so a slow client holds
+     * back the cursor instead of buffering the whole result. The stream runs to the end of the
+     * filtered result; page and size do not apply.
+     */
+    public Flux<Map<String, Object>> stream(ReactiveResourceMeta meta, Map<String, String> params, Sort sort) {
+        return rows(meta, SnapSqlBuilder.select(meta, params, sort, null, null));
+    }
+
+    public Mono<Map<String, Object>> findById(ReactiveResourceMeta meta, Object id) {
+        return rows(meta, SnapSqlBuilder.byId(meta, id)).next();
+    }
+
+    private Flux<Map<String, Object>> rows(ReactiveResourceMeta meta, SnapSqlBuilder.SnapSqlQuery query) {
+        return execute(query)
+                .map((row, metadata) -> toJson(meta, row))
+                .all();
+    }
+
+    private DatabaseClient.GenericExecuteSpec execute(SnapSqlBuilder.SnapSqlQuery query) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(query.sql())
+                .filter(statement -> statement.fetchSize(properties.getFetchSize()));
+        for (Map.Entry<String, Object> binding : query.bindings().entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    /**
+     * Shapes the row like the JPA entity serializes: embedded values become nested objects,
+     * or null when all of their columns are null, and enums are written by name.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toJson(ReactiveResourceMeta meta, Row row) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (SnapColumn column : meta.columns()) {
+            Object value = read(row, column);
+            String[] path = column.property().split("\\.");
+            if (path.length == 1) {
+                json.put(path[0], value);
+                continue;
+            }
+
+            Map<String, Object> embedded = (Map<String, Object>) json.get(path[0]);
+            if (embedded == null) {
+                embedded = new LinkedHashMap<>();
+                json.put(path[0], embedded);
+            }
+            embedded.put(path[1], value);
+        }
+
+        json.replaceAll((property, value) -> value instanceof Map<?, ?> embedded
+                && embedded.values().stream().allMatch(Objects::isNull) ? null : value);
+        return json;
+    }
+
+    private Object read(Row row, SnapColumn column) {
+        if (!column.type().isEnum()) {
+            return row.get(column.column(), column.type());
+        }
+
+        if (column.enumAsString()) {
+            return row.get(column.column(), String.class);
+        }
+        Integer ordinal = row.get(column.column(), Integer.class);
+        return ordinal == null ? null : ((Enum<?>) column.type().getEnumConstants()[ordinal]).name();
+    }
+}
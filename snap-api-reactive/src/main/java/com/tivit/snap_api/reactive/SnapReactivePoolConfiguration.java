@@ -0,0 +1,47 @@
+package com.tivit.snap_api.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Replaces the pool Spring Boot builds from spring.r2dbc.* with the same settings plus an
+ * acquisition scheduler, which Boot does not expose.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "snap.reactive", name = "offload-queries", matchIfMissing = true)
+public class SnapReactivePoolConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(R2dbcProperties properties) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+
+        R2dbcProperties.Pool pool = properties.getPool();
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory)
+                .customizer(poolBuilder -> poolBuilder.acquisitionScheduler(Schedulers.boundedElastic()));
+        map.from(pool.getMaxIdleTime()).to(builder::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(builder::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(builder::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(builder::maxCreateConnectionTime);
+        map.from(pool.getMaxValidationTime()).to(builder::maxValidationTime);
+        map.from(pool.getInitialSize()).to(builder::initialSize);
+        map.from(pool.getMaxSize()).to(builder::maxSize);
+        map.from(pool.getMinIdle()).to(builder::minIdle);
+        map.from(pool.getValidationQuery()).when(StringUtils::hasText).to(builder::validationQuery);
+        map.from(pool.getValidationDepth()).to(builder::validationDepth);
+        map.from(properties.getName()).to(builder::name);
+        return new ConnectionPool(builder.build());
+    }
+}
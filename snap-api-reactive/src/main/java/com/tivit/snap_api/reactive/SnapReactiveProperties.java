@@ -0,0 +1,24 @@
+package com.tivit.snap_api.reactive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "snap.reactive")
+public class SnapReactiveProperties {
+    private String resourcePackage = "com.tivit.snap_api";
+    private int fetchSize = 100;
+    private int maxPageSize = 2000;
+
+    /**
+     * Hands pooled connections to their borrowers on boundedElastic. Without it the pool delivers a
+     * released connection to the next waiting request on the releasing thread, and with r2dbc-h2,
+     * which blocks on that thread, one thread ends up running query after query while the requests
+     * queued behind it stall until the load stops. See SnapReactivePoolConfiguration.
+     */
+    private boolean offloadQueries = true;
+}
@@ -0,0 +1,173 @@
+package com.tivit.snap_api.reactive;
+
+import com.tivit.snap_api.annotations.SnapResource;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Builds the table/column mapping of every @SnapResource entity from its JPA annotations,
+ * following the names Hibernate generates with Spring Boot's default naming strategy.
+ */
+@Component
+public class SnapReactiveRegistry {
+    private static final Logger log = LoggerFactory.getLogger(SnapReactiveRegistry.class);
+
+    private final SnapReactiveProperties properties;
+    private final Map<String, ReactiveResourceMeta> resources = new HashMap<>();
+
+    public SnapReactiveRegistry(SnapReactiveProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(SnapResource.class));
+
+        for (BeanDefinition candidate : scanner.findCandidateComponents(properties.getResourcePackage())) {
+            Class<?> entityClass = ClassUtils.resolveClassName(candidate.getBeanClassName(), getClass().getClassLoader());
+            if (!entityClass.isAnnotationPresent(Entity.class)) {
+                continue;
+            }
+            ReactiveResourceMeta meta = build(entityClass, entityClass.getAnnotation(SnapResource.class));
+            resources.put(meta.path().replaceFirst("^/", ""), meta);
+            log.info("Registered reactive SnapResource: {} -> {}", meta.path(), meta.table());
+        }
+
+        log.info("SnapREST reactive engine initialized with {} resources", resources.size());
+    }
+
+    public ReactiveResourceMeta getMetaFor(String path) {
+        return resources.get(path.replaceFirst("^/", ""));
+    }
+
+    private ReactiveResourceMeta build(Class<?> entityClass, SnapResource annotation) {
+        List<SnapColumn> columns = new ArrayList<>();
+        SnapColumn id = null;
+
+        for (Field field : fieldsOf(entityClass)) {
+            if (field.isAnnotationPresent(Embedded.class) || field.getType().isAnnotationPresent(Embeddable.class)) {
+                Map<String, String> overrides = attributeOverrides(field);
+                for (Field embedded : fieldsOf(field.getType())) {
+                    String column = overrides.getOrDefault(embedded.getName(), columnName(embedded));
+                    columns.add(column(field.getName() + "." + embedded.getName(), column, embedded));
+                }
+                continue;
+            }
+
+            SnapColumn column = column(field.getName(), columnName(field), field);
+            columns.add(column);
+            if (field.isAnnotationPresent(Id.class)) {
+                id = column;
+            }
+        }
+
+        if (id == null) {
+            throw new IllegalStateException("Entidade " + entityClass.getSimpleName() + " não declara um campo @Id");
+        }
+
+        for (String searchable : annotation.searchableFields()) {
+            if (columns.stream().noneMatch(column -> column.property().equals(searchable))) {
+                throw new IllegalStateException(
+                        "Campo '" + searchable + "' não encontrado na entidade " + entityClass.getSimpleName());
+            }
+        }
+
+        Map<String, SnapColumn> byProperty = new LinkedHashMap<>();
+        columns.forEach(column -> byProperty.put(column.property(), column));
+
+        return new ReactiveResourceMeta(
+                annotation.path(),
+                Arrays.asList(annotation.expose()),
+                Arrays.asList(annotation.searchableFields()),
+                entityClass,
+                tableName(entityClass),
+                id,
+                List.copyOf(columns),
+                Collections.unmodifiableMap(byProperty)
+        );
+    }
+
+    private SnapColumn column(String property, String column, Field field) {
+        Enumerated enumerated = field.getAnnotation(Enumerated.class);
+        boolean enumAsString = enumerated != null && enumerated.value() == EnumType.STRING;
+        return new SnapColumn(property, column, ClassUtils.resolvePrimitiveIfNecessary(field.getType()), enumAsString);
+    }
+
+    private List<Field> fieldsOf(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            if (current != type && !current.isAnnotationPresent(MappedSuperclass.class)) {
+                break;
+            }
+            for (Field field : current.getDeclaredFields()) {
+                if (isPersistent(field)) {
+                    fields.add(field);
+                } else {
+                    log.debug("Skipping {}.{} in the reactive mapping", type.getSimpleName(), field.getName());
+                }
+            }
+        }
+        return fields;
+    }
+
+    private boolean isPersistent(Field field) {
+        int modifiers = field.getModifiers();
+        return !Modifier.isStatic(modifiers)
+                && !Modifier.isTransient(modifiers)
+                && !field.isAnnotationPresent(Transient.class)
+                && !field.isAnnotationPresent(ManyToOne.class)
+                && !field.isAnnotationPresent(OneToOne.class)
+                && !field.isAnnotationPresent(OneToMany.class)
+                && !field.isAnnotationPresent(ManyToMany.class)
+                && !field.isAnnotationPresent(ElementCollection.class);
+    }
+
+    private Map<String, String> attributeOverrides(Field field) {
+        Map<String, String> overrides = new HashMap<>();
+        for (AttributeOverride override : field.getAnnotationsByType(AttributeOverride.class)) {
+            overrides.put(override.name(), physicalName(override.column().name()));
+        }
+        return overrides;
+    }
+
+    private String tableName(Class<?> entityClass) {
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table != null && !table.name().isEmpty()) {
+            return physicalName(table.name());
+        }
+        Entity entity = entityClass.getAnnotation(Entity.class);
+        return physicalName(entity.name().isEmpty() ? entityClass.getSimpleName() : entity.name());
+    }
+
+    private String columnName(Field field) {
+        Column column = field.getAnnotation(Column.class);
+        return physicalName(column != null && !column.name().isEmpty() ? column.name() : field.getName());
+    }
+
+    /**
+     * Same rules as Spring Boot's CamelCaseToUnderscoresNamingStrategy.
+     */
+    private String physicalName(String name) {
+        StringBuilder builder = new StringBuilder(name.replace('.', '_'));
+        for (int i = 1; i < builder.length() - 1; i++) {
+            if (Character.isLowerCase(builder.charAt(i - 1))
+                    && Character.isUpperCase(builder.charAt(i))
+                    && Character.isLowerCase(builder.charAt(i + 1))) {
+                builder.insert(i++, '_');
+            }
+        }
+        return builder.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,200 @@
+package com.tivit.snap_api.reactive;
+
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Translates the query-string filters of the MVC engine (see SnapSpecBuilder) into SQL:
+ * {@code field=value} does a case-insensitive contains on strings and equality otherwise, and
+ * {@code field_op=value} supports neq, gt, lt, gte, lte, like and isnull. As there, gt/lt/gte/lte
+ * only order numbers and dates and are equality on other types. Only searchable fields are
+ * considered and every value is bound as a parameter.
+ */
+public final class SnapSqlBuilder {
+
+    private SnapSqlBuilder() {
+    }
+
+    public static SnapSqlQuery select(ReactiveResourceMeta meta, Map<String, String> params, Sort sort,
+                                      Long limit, Long offset) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(columnList(meta))
+                .append(" FROM ").append(meta.table())
+                .append(where(meta, params, bindings));
+
+        if (sort.isSorted()) {
+            List<String> orders = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                SnapColumn column = meta.column(order.getProperty());
+                if (column == null) {
+                    throw new IllegalArgumentException("Unknown sort property: " + order.getProperty());
+                }
+                orders.add(column.column() + (order.isDescending() ? " DESC" : " ASC"));
+            }
+            sql.append(" ORDER BY ").append(String.join(", ", orders));
+        }
+        if (limit != null) {
+            sql.append(" LIMIT :limit");
+            bindings.put("limit", limit);
+        }
+        if (offset != null) {
+            sql.append(" OFFSET :offset");
+            bindings.put("offset", offset);
+        }
+        return new SnapSqlQuery(sql.toString(), bindings);
+    }
+
+    public static SnapSqlQuery count(ReactiveResourceMeta meta, Map<String, String> params) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String sql = "SELECT COUNT(*) FROM " + meta.table() + where(meta, params, bindings);
+        return new SnapSqlQuery(sql, bindings);
+    }
+
+    public static SnapSqlQuery byId(ReactiveResourceMeta meta, Object id) {
+        String sql = "SELECT " + columnList(meta) + " FROM " + meta.table()
+                + " WHERE " + meta.id().column() + " = :id";
+        return new SnapSqlQuery(sql, Map.of("id", id));
+    }
+
+    public static Object convertValue(String value, Class<?> targetType) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+
+        try {
+            if (targetType == String.class) {
+                return value;
+            } else if (targetType == Integer.class) {
+                return Integer.parseInt(value);
+            } else if (targetType == Long.class) {
+                return Long.parseLong(value);
+            } else if (targetType == Double.class) {
+                return Double.parseDouble(value);
+            } else if (targetType == Float.class) {
+                return Float.parseFloat(value);
+            } else if (targetType == Boolean.class) {
+                return Boolean.parseBoolean(value);
+            } else if (targetType == BigDecimal.class) {
+                return new BigDecimal(value);
+            } else if (targetType == LocalDate.class) {
+                return LocalDate.parse(value);
+            } else if (targetType == LocalDateTime.class) {
+                try {
+                    return LocalDateTime.parse(value);
+                } catch (Exception e) {
+                    return LocalDateTime.parse(value, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+                }
+            } else if (targetType == UUID.class) {
+                return UUID.fromString(value);
+            }
+        } catch (Exception e) {
+            return null;
+        }
+
+        return value;
+    }
+
+    private static String columnList(ReactiveResourceMeta meta) {
+        return meta.columns().stream().map(SnapColumn::column).collect(Collectors.joining(", "));
+    }
+
+    private static String where(ReactiveResourceMeta meta, Map<String, String> params, Map<String, Object> bindings) {
+        List<String> predicates = new ArrayList<>();
+
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            String key = entry.getKey();
+            if (isReservedParam(key)) {
+                continue;
+            }
+
+            if (key.contains("_")) {
+                String[] parts = key.split("_", 2);
+                if (meta.searchableFields().contains(parts[0])) {
+                    predicates.add(predicate(meta.column(parts[0]), parts[1].toLowerCase(), entry.getValue(), bindings));
+                }
+            } else if (meta.searchableFields().contains(key)) {
+                SnapColumn column = meta.column(key);
+                predicates.add(column.type() == String.class
+                        ? like(column, entry.getValue(), bindings)
+                        : equalTo(column, entry.getValue(), bindings));
+            }
+        }
+
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    private static String predicate(SnapColumn column, String operator, String value, Map<String, Object> bindings) {
+        return switch (operator) {
+            case "neq" -> "NOT (" + equalTo(column, value, bindings) + ")";
+            case "gt" -> compare(column, ">", value, bindings);
+            case "lt" -> compare(column, "<", value, bindings);
+            case "gte" -> compare(column, ">=", value, bindings);
+            case "lte" -> compare(column, "<=", value, bindings);
+            case "like" -> column.type() == String.class
+                    ? like(column, value, bindings)
+                    : equalTo(column, value, bindings);
+            case "isnull" -> column.column() + (value.equalsIgnoreCase("true") ? " IS NULL" : " IS NOT NULL");
+            default -> equalTo(column, value, bindings);
+        };
+    }
+
+    private static String like(SnapColumn column, String value, Map<String, Object> bindings) {
+        return "LOWER(" + column.column() + ") LIKE :" + bind(bindings, "%" + value.toLowerCase() + "%");
+    }
+
+    private static String equalTo(SnapColumn column, String value, Map<String, Object> bindings) {
+        Object converted = columnValue(column, value);
+        if (converted == null) {
+            return column.column() + " IS NULL";
+        }
+        return column.column() + " = :" + bind(bindings, converted);
+    }
+
+    private static String compare(SnapColumn column, String operator, String value, Map<String, Object> bindings) {
+        if (!isOrdered(column.type())) {
+            return equalTo(column, value, bindings);
+        }
+        Object converted = columnValue(column, value);
+        if (converted == null) {
+            return column.column() + " IS NULL";
+        }
+        return column.column() + " " + operator + " :" + bind(bindings, converted);
+    }
+
+    private static boolean isOrdered(Class<?> type) {
+        return Number.class.isAssignableFrom(type) || type == LocalDate.class || type == LocalDateTime.class;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object columnValue(SnapColumn column, String value) {
+        if (!column.type().isEnum()) {
+            return convertValue(value, column.type());
+        }
+        try {
+            Enum<?> constant = Enum.valueOf((Class<Enum>) column.type(), value);
+            return column.enumAsString() ? constant.name() : constant.ordinal();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String bind(Map<String, Object> bindings, Object value) {
+        String name = "p" + bindings.size();
+        bindings.put(name, value);
+        return name;
+    }
+
+    private static boolean isReservedParam(String key) {
+        return key.equals("page") || key.equals("size") || key.equals("sort")
+                || key.equals("since") || key.equals("continuation");
+    }
+
+    public record SnapSqlQuery(String sql, Map<String, Object> bindings) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.tivit.snap_api.aggregate;
+
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.dto.AggregateResponse;
+import com.tivit.snap_api.spec.SnapSpecBuilder;
+import com.tivit.snap_api.sync.SnapSyncService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@SuppressWarnings("unchecked")
+public class SnapAggregationService {
+
+    private final EntityManager entityManager;
+    private final SnapSyncService syncService;
+    private final SnapApiProperties.Aggregate properties;
+    private final Map<String, CachedResult> cache = new ConcurrentHashMap<>();
+
+    public SnapAggregationService(EntityManager entityManager, SnapSyncService syncService,
+                                  SnapApiProperties properties) {
+        this.entityManager = entityManager;
+        this.syncService = syncService;
+        this.properties = properties.getAggregate();
+    }
+
+    @Transactional(readOnly = true)
+    public AggregateResponse aggregate(SnapResourceMeta meta, Map<String, String> params) {
+        List<String> groupBy = splitParam(params.get("groupBy"));
+        List<String> metrics = splitParam(params.get("metrics"));
+        if (metrics.isEmpty()) {
+            metrics = List.of("count");
+        }
+        validate(meta, groupBy, metrics);
+
+        // only sync-enabled resources have a version that moves with writes made on other instances
+        if (!meta.isSyncEnabled()) {
+            return execute(meta, params, groupBy, metrics);
+        }
+
+        String key = meta.path() + "?" + new TreeMap<>(params);
+        long version = syncService.currentWatermark(meta);
+        CachedResult cached = cache.get(key);
+        if (cached != null && cached.version() == version && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.response();
+        }
+
+        AggregateResponse response = execute(meta, params, groupBy, metrics);
+
+        if (cache.size() >= properties.getCacheSize()) {
+            cache.clear();
+        }
+        cache.put(key, new CachedResult(version, System.currentTimeMillis() + properties.getCacheTtl().toMillis(),
+                response));
+        return response;
+    }
+
+    private AggregateResponse execute(SnapResourceMeta meta, Map<String, String> params,
+                                      List<String> groupBy, List<String> metrics) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Object> root = query.from((Class<Object>) meta.entityClass());
+
+        List<Selection<?>> selections = new ArrayList<>();
+        List<Expression<?>> groupings = new ArrayList<>();
+        for (int i = 0; i < groupBy.size(); i++) {
+            Path<?> path = getPath(root, groupBy.get(i));
+            selections.add(path.alias("g" + i));
+            groupings.add(path);
+        }
+
+        for (int i = 0; i < metrics.size(); i++) {
+            selections.add(createMetric(cb, root, metrics.get(i)).alias("m" + i));
+        }
+
+        query.multiselect(selections);
+        if (meta.supportsSpecification()) {
+            Specification<Object> spec = SnapSpecBuilder.build(meta, params);
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (!groupings.isEmpty()) {
+            query.groupBy(groupings);
+            query.orderBy(groupings.stream().map(cb::asc).toList());
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setMaxResults(properties.getMaxGroups() + 1)
+                .getResultList();
+        boolean truncated = tuples.size() > properties.getMaxGroups();
+        if (truncated) {
+            tuples = tuples.subList(0, properties.getMaxGroups());
+        }
+
+        List<Map<String, Object>> groups = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                row.put(groupBy.get(i), tuple.get("g" + i));
+            }
+            for (int i = 0; i < metrics.size(); i++) {
+                row.put(metrics.get(i).replace(':', '_'), tuple.get("m" + i));
+            }
+            groups.add(row);
+        }
+
+        return new AggregateResponse(groupBy, metrics, groups, truncated);
+    }
+
+    private Expression<?> createMetric(CriteriaBuilder cb, Root<Object> root, String metric) {
+        if (metric.equals("count")) {
+            return cb.count(root);
+        }
+
+        String[] parts = metric.split(":", 2);
+        Expression<Number> field = (Expression<Number>) getPath(root, parts[1]);
+        return switch (parts[0]) {
+            case "sum" -> cb.sum(field);
+            case "avg" -> cb.avg(field);
+            case "min" -> cb.min(field);
+            case "max" -> cb.max(field);
+            default -> throw new IllegalArgumentException("Unsupported metric: " + metric);
+        };
+    }
+
+    private void validate(SnapResourceMeta meta, List<String> groupBy, List<String> metrics) {
+        for (String field : groupBy) {
+            if (!meta.searchableFields().contains(field)) {
+                throw new IllegalArgumentException("Field '" + field + "' is not searchable");
+            }
+        }
+
+        for (String metric : metrics) {
+            if (metric.equals("count")) {
+                continue;
+            }
+            String[] parts = metric.split(":", 2);
+            if (parts.length != 2 || !Set.of("sum", "avg", "min", "max").contains(parts[0])) {
+                throw new IllegalArgumentException("Unsupported metric: " + metric);
+            }
+            if (!meta.aggregatableFields().contains(parts[1])) {
+                throw new IllegalArgumentException("Field '" + parts[1] + "' is not aggregatable");
+            }
+        }
+    }
+
+    private List<String> splitParam(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .toList();
+    }
+
+    private Path<?> getPath(Root<?> root, String fieldPath) {
+        Path<?> path = root;
+        for (String part : fieldPath.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
+    private record CachedResult(long version, long expiresAt, AggregateResponse response) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.tivit.snap_api.annotations;
 
 import com.tivit.snap_api.enums.Endpoint;
+import com.tivit.snap_api.enums.Partitioning;
 import java.lang.annotation.*;
 
 @Retention(RetentionPolicy.RUNTIME)
@@ -9,4 +10,8 @@ public @interface SnapResource {
     String path();
     Endpoint[] expose() default {};
     String[] searchableFields() default {};
+    String[] aggregatableFields() default {};
+    String syncField() default "";
+    boolean asyncIngest() default false;
+    Partitioning partitioning() default Partitioning.NONE;
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.tivit.snap_api.changes;
+
+import com.tivit.snap_api.enums.ChangeType;
+
+public record SnapChangeEvent(
+        long id,
+        String resource,
+        ChangeType type,
+        String json
+) {
+}
@@ -0,0 +1,272 @@
+package com.tivit.snap_api.changes;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.ChangeType;
+import com.tivit.snap_api.spec.SnapSpecBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class SnapChangeFeed {
+    private static final Logger log = LoggerFactory.getLogger(SnapChangeFeed.class);
+
+    private final ObjectMapper objectMapper;
+    private final SnapApiProperties properties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, ResourceFeed> feeds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snap-changes-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ExecutorService fanout;
+
+    public SnapChangeFeed(ObjectMapper objectMapper, SnapApiProperties properties,
+                          EntityManagerFactory entityManagerFactory) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        fanout = Executors.newFixedThreadPool(properties.getChanges().getFanoutThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "snap-changes-fanout-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getChanges().getHeartbeatInterval().toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        fanout.shutdownNow();
+        for (ResourceFeed feed : feeds.values()) {
+            for (Subscription subscription : feed.subscriptions) {
+                subscription.emitter().complete();
+            }
+        }
+    }
+
+    public void publish(SnapResourceMeta meta, ChangeType type, Object id, Object entity) {
+        afterCommit(() -> doPublish(meta, type, id, entity));
+    }
+
+    /**
+     * One event per committed chunk of a bulk import instead of one per row; its data only carries
+     * the number of rows, so subscribers re-sync rather than apply it.
+     */
+    public void publishImported(SnapResourceMeta meta, int count) {
+        afterCommit(() -> append(meta, ChangeType.IMPORTED, null, Map.of("count", count)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public SseEmitter subscribe(SnapResourceMeta meta, Map<String, String> filters, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getChanges().getEmitterTimeout().toMillis());
+        ResourceFeed feed = feedFor(meta);
+        Map<String, String> criteria = new HashMap<>(filters);
+        criteria.keySet().removeIf(SnapSpecBuilder::isReservedParam);
+        Subscription subscription = new Subscription(emitter, meta, Map.copyOf(criteria), feed,
+                new ArrayBlockingQueue<>(properties.getChanges().getSubscriberBufferSize()), new AtomicBoolean());
+
+        synchronized (feed) {
+            if (lastEventId != null) {
+                replay(feed, subscription, lastEventId);
+            }
+            feed.subscriptions.add(subscription);
+        }
+        schedule(subscription);
+
+        emitter.onCompletion(() -> feed.subscriptions.remove(subscription));
+        emitter.onTimeout(() -> feed.subscriptions.remove(subscription));
+        emitter.onError(e -> feed.subscriptions.remove(subscription));
+
+        log.debug("New change feed subscriber for {} ({} active)", meta.path(), feed.subscriptions.size());
+        return emitter;
+    }
+
+    private void doPublish(SnapResourceMeta meta, ChangeType type, Object id, Object entity) {
+        try {
+            Object entityId = id != null ? id : entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+            append(meta, type, String.valueOf(entityId), entity);
+        } catch (Exception e) {
+            log.error("Error publishing {} event for resource {}: {}", type, meta.path(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The buffer keeps only the serialized envelope, written straight from the entity; subscriber
+     * filters are matched on the fan-out threads.
+     */
+    private void append(SnapResourceMeta meta, ChangeType type, String id, Object data) {
+        try {
+            String json = envelope(meta, type, id, data);
+            ResourceFeed feed = feedFor(meta);
+            synchronized (feed) {
+                SnapChangeEvent event = new SnapChangeEvent(sequence.incrementAndGet(), meta.path(), type, json);
+
+                feed.events.addLast(event);
+                while (feed.events.size() > properties.getChanges().getBufferSize()) {
+                    feed.evictedUpTo = feed.events.removeFirst().id();
+                }
+
+                for (Subscription subscription : feed.subscriptions) {
+                    enqueue(subscription, event);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error publishing {} event for resource {}: {}", type, meta.path(), e.getMessage(), e);
+        }
+    }
+
+    private String envelope(SnapResourceMeta meta, ChangeType type, String id, Object data) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", type.name());
+            generator.writeStringField("resource", meta.path());
+            generator.writeStringField("id", id);
+            generator.writeFieldName("data");
+            objectMapper.writeValue(generator, data);
+            generator.writeEndObject();
+        }
+        return json.toString();
+    }
+
+    private void replay(ResourceFeed feed, Subscription subscription, long lastEventId) {
+        if (lastEventId < feed.evictedUpTo) {
+            enqueue(subscription, SseEmitter.event()
+                    .id(String.valueOf(feed.evictedUpTo))
+                    .name("reset")
+                    .data("{}", MediaType.APPLICATION_JSON));
+        }
+
+        for (SnapChangeEvent event : feed.events) {
+            if (event.id() > lastEventId) {
+                enqueue(subscription, event);
+            }
+        }
+    }
+
+    /**
+     * Writers only hand events to the subscriber's bounded queue; filtering and the socket writes
+     * happen on the fan-out executor. A subscriber whose queue is full has fallen behind and is
+     * disconnected, it reconnects with Last-Event-ID and is replayed from the buffer or told to reset.
+     * The queue holds change events and ready-made SSE events (reset, keepalive).
+     */
+    private void enqueue(Subscription subscription, Object event) {
+        if (!subscription.pending().offer(event)) {
+            drop(subscription, "fell behind");
+            return;
+        }
+        schedule(subscription);
+    }
+
+    private void schedule(Subscription subscription) {
+        if (!subscription.pending().isEmpty() && subscription.draining().compareAndSet(false, true)) {
+            try {
+                fanout.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.draining().set(false);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            Object next;
+            while ((next = subscription.pending().poll()) != null) {
+                if (!(next instanceof SnapChangeEvent event)) {
+                    subscription.emitter().send((SseEmitter.SseEventBuilder) next);
+                } else if (accepts(subscription, event)) {
+                    subscription.emitter().send(toSse(event));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscription, e.getMessage());
+            return;
+        } finally {
+            subscription.draining().set(false);
+        }
+        schedule(subscription);
+    }
+
+    private void drop(Subscription subscription, String reason) {
+        subscription.feed().subscriptions.remove(subscription);
+        subscription.pending().clear();
+        subscription.emitter().complete();
+        log.debug("Dropping change feed subscriber for {}: {}", subscription.meta().path(), reason);
+    }
+
+    private boolean accepts(Subscription subscription, SnapChangeEvent event) throws IOException {
+        return subscription.filters().isEmpty() || event.type() == ChangeType.IMPORTED
+                || SnapSpecBuilder.matches(subscription.meta(), subscription.filters(),
+                objectMapper.readTree(event.json()).path("data"));
+    }
+
+    private SseEmitter.SseEventBuilder toSse(SnapChangeEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.id()))
+                .name(event.type().name().toLowerCase())
+                .data(event.json(), MediaType.APPLICATION_JSON);
+    }
+
+    private void sendHeartbeats() {
+        for (ResourceFeed feed : feeds.values()) {
+            for (Subscription subscription : feed.subscriptions) {
+                if (subscription.pending().isEmpty()) {
+                    enqueue(subscription, SseEmitter.event().comment("keepalive"));
+                }
+            }
+        }
+    }
+
+    private ResourceFeed feedFor(SnapResourceMeta meta) {
+        return feeds.computeIfAbsent(meta.path(), path -> new ResourceFeed());
+    }
+
+    private static class ResourceFeed {
+        private final Deque<SnapChangeEvent> events = new ArrayDeque<>();
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private long evictedUpTo;
+    }
+
+    private record Subscription(SseEmitter emitter, SnapResourceMeta meta, Map<String, String> filters,
+                                ResourceFeed feed, BlockingQueue<Object> pending, AtomicBoolean draining) {
+    }
+}
@@ -4,6 +4,11 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Getter
 @Setter
@@ -14,4 +19,126 @@ public class SnapApiProperties {
     private String title = "SnapREST API";
     private String description = "API automatically generated by SnapREST";
     private String version = "1.0";
-}
\ No newline at end of file
+    private final Changes changes = new Changes();
+    private final Sync sync = new Sync();
+    private final Ingest ingest = new Ingest();
+    private final Datasource datasource = new Datasource();
+    private final Aggregate aggregate = new Aggregate();
+    private final Read read = new Read();
+    private final Batch batch = new Batch();
+    private final Warmup warmup = new Warmup();
+    private final Coalescing coalescing = new Coalescing();
+    private final Import imports = new Import();
+    private final Timing timing = new Timing();
+    private final Partition partition = new Partition();
+
+    @Getter
+    @Setter
+    public static class Changes {
+        private int bufferSize = 1000;
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+        private Duration emitterTimeout = Duration.ofMinutes(30);
+        private int subscriberBufferSize = 1000;
+        private int fanoutThreads = 4;
+    }
+
+    @Getter
+    @Setter
+    public static class Sync {
+        private int defaultSize = 100;
+        private int maxSize = 1000;
+        private Duration tombstoneRetention = Duration.ofDays(30);
+        private Duration purgeInterval = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Ingest {
+        private int queueCapacity = 10000;
+        private int batchSize = 500;
+        private Duration flushInterval = Duration.ofMillis(200);
+        private Duration retryBackoff = Duration.ofSeconds(1);
+        private String spillDirectory = "snap-ingest";
+        private boolean syncWrites = true;
+        private int statusRetention = 100000;
+        private DataSize journalCompactSize = DataSize.ofMegabytes(64);
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Datasource {
+        private List<Replica> replicas = new ArrayList<>();
+        private Duration maxReplicaLag = Duration.ofSeconds(5);
+        private List<Replica> shards = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+
+    @Getter
+    @Setter
+    public static class Read {
+        private int fetchSize = 100;
+        private int maxPageSize = 2000;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        private int maxOperations = 100;
+        private int parallelism = 8;
+    }
+
+    @Getter
+    @Setter
+    public static class Warmup {
+        private boolean enabled = true;
+        private int iterations = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class Coalescing {
+        private boolean enabled = true;
+        private Duration maxWait = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Import {
+        private int chunkSize = 1000;
+        private int maxErrors = 100;
+        private int jobRetention = 100;
+        private String allowedDirectory;
+        private DataSize maxRecordSize = DataSize.ofMegabytes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Timing {
+        private String token;
+        private double sampleRate = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Partition {
+        private int maxMergeWindow = 10000;
+        private int parallelism = 8;
+    }
+
+    @Getter
+    @Setter
+    public static class Aggregate {
+        private int maxGroups = 1000;
+        private int cacheSize = 500;
+        private Duration cacheTtl = Duration.ofSeconds(30);
+    }
+}
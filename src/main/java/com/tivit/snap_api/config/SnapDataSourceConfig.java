@@ -0,0 +1,53 @@
+package com.tivit.snap_api.config;
+
+import com.tivit.snap_api.routing.SnapRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "snap.api.datasource", name = "replicas[0].url")
+public class SnapDataSourceConfig {
+    private static final Logger log = LoggerFactory.getLogger(SnapDataSourceConfig.class);
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, SnapApiProperties snapApiProperties) {
+        DataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (SnapApiProperties.Replica replica : snapApiProperties.getDatasource().getReplicas()) {
+            DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword());
+            if (replica.getDriverClassName() != null) {
+                builder.driverClassName(replica.getDriverClassName());
+            }
+
+            HikariDataSource dataSource = builder.build();
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+
+        SnapRoutingDataSource routing = new SnapRoutingDataSource(primary, replicas);
+        routing.afterPropertiesSet();
+
+        log.info("Routing read-only transactions across {} replica datasource(s)", replicas.size());
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,30 @@
+package com.tivit.snap_api.config;
+
+import com.tivit.snap_api.routing.SnapConsistencyInterceptor;
+import com.tivit.snap_api.timing.SnapTimingInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class SnapWebConfig implements WebMvcConfigurer {
+
+    private final SnapConsistencyInterceptor consistencyInterceptor;
+    private final SnapTimingInterceptor timingInterceptor;
+    private final SnapApiProperties properties;
+
+    public SnapWebConfig(SnapConsistencyInterceptor consistencyInterceptor, SnapTimingInterceptor timingInterceptor,
+                         SnapApiProperties properties) {
+        this.consistencyInterceptor = consistencyInterceptor;
+        this.timingInterceptor = timingInterceptor;
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(timingInterceptor)
+                .addPathPatterns(properties.getBasePath() + "/**");
+        registry.addInterceptor(consistencyInterceptor)
+                .addPathPatterns(properties.getBasePath() + "/**");
+    }
+}
@@ -0,0 +1,114 @@
+package com.tivit.snap_api.core;
+
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.timing.SnapTiming;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@SuppressWarnings("unchecked")
+public class SnapReadExecutor {
+
+    private final EntityManager entityManager;
+    private final SnapApiProperties.Read properties;
+
+    public SnapReadExecutor(EntityManager entityManager, SnapApiProperties properties) {
+        this.entityManager = entityManager;
+        this.properties = properties.getRead();
+    }
+
+    public Page<Object> findAll(SnapResourceMeta meta, Specification<Object> spec, Pageable pageable) {
+        CriteriaQuery<Object> query = buildSelect(entityManager.getCriteriaBuilder(), meta, spec, pageable);
+        TypedQuery<Object> typedQuery = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, properties.getFetchSize());
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+
+        List<Object> content = list(typedQuery.unwrap(org.hibernate.query.Query.class));
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(meta, spec));
+    }
+
+    public Optional<Object> findById(SnapResourceMeta meta, Object id) {
+        Session session = entityManager.unwrap(Session.class);
+        long began = SnapTiming.begin();
+        Object entity = session.byId((Class<Object>) meta.entityClass())
+                .withReadOnly(true)
+                .load(id);
+        SnapTiming.endRead(began);
+        return Optional.ofNullable(entity);
+    }
+
+    public long count(SnapResourceMeta meta, Specification<Object> spec) {
+        CriteriaQuery<Long> query = buildCount(entityManager.getCriteriaBuilder(), meta, spec);
+        long began = SnapTiming.begin();
+        long total = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .getSingleResult();
+        SnapTiming.end("count", began);
+        return total;
+    }
+
+    private List<Object> list(org.hibernate.query.Query<Object> query) {
+        long began = SnapTiming.begin();
+        List<Object> content = query.getResultList();
+        SnapTiming.endRead(began);
+        return content;
+    }
+
+    private CriteriaQuery<Object> buildSelect(CriteriaBuilder cb, SnapResourceMeta meta,
+                                              Specification<Object> spec, Pageable pageable) {
+        long began = SnapTiming.begin();
+        Class<Object> type = (Class<Object>) meta.entityClass();
+        CriteriaQuery<Object> query = cb.createQuery(type);
+        Root<Object> root = query.from(type);
+        query.select(root);
+        applySpecification(spec, root, query, cb);
+
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        SnapTiming.end("spec", began);
+        return query;
+    }
+
+    private CriteriaQuery<Long> buildCount(CriteriaBuilder cb, SnapResourceMeta meta, Specification<Object> spec) {
+        long began = SnapTiming.begin();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Object> root = query.from((Class<Object>) meta.entityClass());
+        applySpecification(spec, root, query, cb);
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        SnapTiming.end("spec", began);
+        return query;
+    }
+
+    private void applySpecification(Specification<Object> spec, Root<Object> root,
+                                    CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
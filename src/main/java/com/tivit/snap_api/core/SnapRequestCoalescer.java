@@ -0,0 +1,150 @@
+package com.tivit.snap_api.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.routing.SnapReadContext;
+import com.tivit.snap_api.timing.SnapTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+public class SnapRequestCoalescer {
+    private static final ThreadLocal<Boolean> bypassing = new ThreadLocal<>();
+
+    private final ObjectMapper objectMapper;
+    private final SnapApiProperties.Coalescing properties;
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter timeouts;
+    private final Counter bypassed;
+
+    public SnapRequestCoalescer(ObjectMapper objectMapper, SnapApiProperties properties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties.getCoalescing();
+        this.leaders = meterRegistry.counter("snap.coalescing.requests", "outcome", "leader");
+        this.followers = meterRegistry.counter("snap.coalescing.requests", "outcome", "follower");
+        this.timeouts = meterRegistry.counter("snap.coalescing.requests", "outcome", "timeout");
+        this.bypassed = meterRegistry.counter("snap.coalescing.requests", "outcome", "bypassed");
+        Gauge.builder("snap.coalescing.hit.ratio", this, SnapRequestCoalescer::hitRate)
+                .description("Share of coalescible reads served by another request's query")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs reads that must neither share results with live requests nor count in the coalescing
+     * meters, such as the startup warmup.
+     */
+    public static void bypass(Runnable reads) {
+        bypassing.set(Boolean.TRUE);
+        try {
+            reads.run();
+        } finally {
+            bypassing.remove();
+        }
+    }
+
+    public ResponseEntity<?> execute(String key, Supplier<ResponseEntity<?>> loader) {
+        if (bypassing.get() != null) {
+            return loader.get();
+        }
+        if (!properties.isEnabled()
+                || SnapReadContext.isPrimaryRequired()
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            bypassed.increment();
+            return loader.get();
+        }
+
+        Flight created = new Flight();
+        Flight existing = inFlight.putIfAbsent(key, created);
+
+        if (existing == null) {
+            leaders.increment();
+            try {
+                ResponseEntity<?> response = loader.get();
+                inFlight.remove(key, created);
+                // serialized only when another request is waiting for it, once for all of them
+                if (created.close() > 0) {
+                    response = serialize(response);
+                }
+                created.result.complete(response);
+                return response;
+            } catch (RuntimeException e) {
+                created.close();
+                created.result.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, created);
+            }
+        }
+
+        if (!existing.join()) {
+            bypassed.increment();
+            return loader.get();
+        }
+
+        long began = SnapTiming.begin();
+        try {
+            ResponseEntity<?> response = existing.result.get(properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+            SnapTiming.end("coalesced", began);
+            followers.increment();
+            return response;
+        } catch (TimeoutException | ExecutionException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced read", e);
+        }
+    }
+
+    public double hitRate() {
+        double total = leaders.count() + followers.count() + timeouts.count();
+        return total == 0 ? 0 : followers.count() / total;
+    }
+
+    public ResponseEntity<?> serialize(ResponseEntity<?> response) {
+        if (response.getBody() == null || response.getBody() instanceof byte[]) {
+            return response;
+        }
+        try {
+            long began = SnapTiming.begin();
+            byte[] json = objectMapper.writeValueAsBytes(response.getBody());
+            SnapTiming.end("serialize", began);
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Followers register before waiting; once the leader closes the flight, late arrivals run the
+     * read themselves, so the leader knows exactly whether the shared bytes are needed.
+     */
+    private static final class Flight {
+        private final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        boolean join() {
+            return waiting.getAndUpdate(count -> count < 0 ? count : count + 1) >= 0;
+        }
+
+        int close() {
+            return waiting.getAndSet(-1);
+        }
+    }
+}
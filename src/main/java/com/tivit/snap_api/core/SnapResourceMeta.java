@@ -1,6 +1,7 @@
 package com.tivit.snap_api.core;
 
 import com.tivit.snap_api.enums.Endpoint;
+import com.tivit.snap_api.enums.Partitioning;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -9,12 +10,24 @@ public record SnapResourceMeta(
         String path,
         List<Endpoint> endpoints,
         List<String> searchableFields,
+        List<String> aggregatableFields,
         JpaRepository<?, ?> repository,
         Class<?> entityClass,
         Class<?> idClass,
-        boolean supportsSpecification
+        boolean supportsSpecification,
+        String syncField,
+        boolean asyncIngest,
+        Partitioning partitioning
 ) {
     public boolean isEndpointEnabled(Endpoint endpoint) {
         return endpoints.contains(endpoint);
     }
+
+    public boolean isSyncEnabled() {
+        return syncField != null;
+    }
+
+    public boolean isPartitioned() {
+        return partitioning != Partitioning.NONE;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.tivit.snap_api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record AggregateResponse(
+        List<String> groupBy,
+        List<String> metrics,
+        List<Map<String, Object>> groups,
+        boolean truncated
+) {
+}
@@ -0,0 +1,18 @@
+package com.tivit.snap_api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record BatchRequest(
+        boolean atomic,
+        List<Operation> operations
+) {
+    public record Operation(
+            String method,
+            String resource,
+            String id,
+            Map<String, Object> body,
+            Map<String, Object> query
+    ) {
+    }
+}
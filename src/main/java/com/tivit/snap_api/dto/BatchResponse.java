@@ -0,0 +1,10 @@
+package com.tivit.snap_api.dto;
+
+import java.util.List;
+
+public record BatchResponse(
+        List<Result> results
+) {
+    public record Result(int status, Object body) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.tivit.snap_api.dto;
+
+import java.util.List;
+
+public record ContinuationResponse<T>(
+        List<T> content,
+        int pageSize,
+        String continuation,
+        boolean last
+) {
+}
@@ -0,0 +1,14 @@
+package com.tivit.snap_api.dto;
+
+import java.util.List;
+
+public record SyncResponse<T>(
+        List<T> changes,
+        List<Deleted> deleted,
+        long watermark,
+        String continuation,
+        boolean hasMore
+) {
+    public record Deleted(String id, long watermark) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.tivit.snap_api.enums;
+
+public enum ChangeType {
+    CREATED, UPDATED, DELETED, IMPORTED
+}
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.tivit.snap_api.enums;
+
+public enum ImportStatus {
+    RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,133 @@
+package com.tivit.snap_api.ingest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Reads RFC 4180 style CSV with a header row. Dotted headers such as {@code categoria.id}
+ * become nested maps, unquoted empty fields become null.
+ */
+public class CsvRecordReader implements SnapRecordReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private List<String[]> header;
+
+    public CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public Map<String, Object> read() throws IOException {
+        if (header == null) {
+            readHeader();
+        }
+
+        List<String> fields;
+        do {
+            fields = readRow();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0) == null);
+
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + header.size() + " columns but found " + fields.size());
+        }
+
+        Map<String, Object> record = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            put(record, header.get(i), fields.get(i));
+        }
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> names = readRow();
+        header = new ArrayList<>();
+        if (names == null) {
+            return;
+        }
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i) == null ? "" : names.get(i).trim();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            if (name.isEmpty()) {
+                throw new IllegalStateException("CSV header has an empty column name at position " + (i + 1));
+            }
+            header.add(name.split("\\."));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void put(Map<String, Object> record, String[] path, String value) {
+        Map<String, Object> current = record;
+        for (int i = 0; i < path.length - 1; i++) {
+            Object child = current.computeIfAbsent(path[i], key -> new LinkedHashMap<String, Object>());
+            if (!(child instanceof Map)) {
+                throw new IllegalArgumentException("Column " + String.join(".", path) + " conflicts with " + path[i]);
+            }
+            current = (Map<String, Object>) child;
+        }
+        current.put(path[path.length - 1], value);
+    }
+
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        int length = 0;
+
+        while (true) {
+            if (++length > maxRecordLength) {
+                throw new RecordTooLargeException(maxRecordLength);
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',' || c == '\n' || c == -1) {
+                if (c != ',' && !field.isEmpty() && field.charAt(field.length() - 1) == '\r') {
+                    field.setLength(field.length() - 1);
+                }
+                fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+                if (c != ',') {
+                    return fields;
+                }
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
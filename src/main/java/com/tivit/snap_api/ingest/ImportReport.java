@@ -0,0 +1,19 @@
+package com.tivit.snap_api.ingest;
+
+import com.tivit.snap_api.enums.ImportStatus;
+
+import java.util.List;
+
+public record ImportReport(
+        String importId,
+        String resource,
+        ImportStatus status,
+        long checkpoint,
+        long imported,
+        long failed,
+        String error,
+        List<RecordError> errors
+) {
+    public record RecordError(long record, String error) {
+    }
+}
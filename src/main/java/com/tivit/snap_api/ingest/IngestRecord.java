@@ -0,0 +1,6 @@
+package com.tivit.snap_api.ingest;
+
+import java.util.Map;
+
+public record IngestRecord(String trackingId, Map<String, Object> body) {
+}
@@ -0,0 +1,6 @@
+package com.tivit.snap_api.ingest;
+
+import com.tivit.snap_api.enums.IngestStatus;
+
+public record IngestResult(String trackingId, IngestStatus status, String error) {
+}
@@ -0,0 +1,87 @@
+package com.tivit.snap_api.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+public class NdjsonRecordReader implements SnapRecordReader {
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {};
+
+    private final Reader reader;
+    private final ObjectMapper objectMapper;
+    private final int maxRecordLength;
+    private final char[] chars = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+
+    public NdjsonRecordReader(Reader reader, ObjectMapper objectMapper, int maxRecordLength) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public Map<String, Object> read() throws IOException {
+        String record;
+        do {
+            record = readLine();
+            if (record == null) {
+                return null;
+            }
+        } while (record.isBlank());
+
+        try {
+            return objectMapper.readValue(record, RECORD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON record: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Like BufferedReader.readLine, but gives up as soon as the line is longer than the limit
+     * instead of buffering it whole.
+     */
+    private String readLine() throws IOException {
+        line.setLength(0);
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(chars);
+                position = 0;
+                if (limit == -1) {
+                    limit = 0;
+                    return line.isEmpty() ? null : stripCarriageReturn();
+                }
+            }
+
+            int start = position;
+            while (position < limit && chars[position] != '\n') {
+                position++;
+            }
+            if (line.length() + position - start > maxRecordLength) {
+                throw new RecordTooLargeException(maxRecordLength);
+            }
+            line.append(chars, start, position - start);
+            if (position < limit) {
+                position++;
+                return stripCarriageReturn();
+            }
+        }
+    }
+
+    private String stripCarriageReturn() {
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return line.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
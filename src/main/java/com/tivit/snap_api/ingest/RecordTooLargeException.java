@@ -0,0 +1,14 @@
+package com.tivit.snap_api.ingest;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a record reader when a record is longer than the configured limit. Unlike a malformed
+ * record it ends the import, as the reader cannot tell where the next record starts.
+ */
+public class RecordTooLargeException extends IOException {
+
+    public RecordTooLargeException(long limit) {
+        super("Record exceeds the maximum of " + limit + " characters");
+    }
+}
@@ -0,0 +1,156 @@
+package com.tivit.snap_api.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.changes.SnapChangeFeed;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.ChangeType;
+import com.tivit.snap_api.sync.SnapSyncService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Component
+@SuppressWarnings("unchecked")
+public class SnapBatchWriter {
+    private static final Logger log = LoggerFactory.getLogger(SnapBatchWriter.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final SnapSyncService syncService;
+    private final SnapChangeFeed changeFeed;
+    private final SnapIngestReceiptRepository receiptRepository;
+
+    public SnapBatchWriter(PlatformTransactionManager transactionManager, EntityManager entityManager,
+                           ObjectMapper objectMapper, SnapSyncService syncService, SnapChangeFeed changeFeed,
+                           SnapIngestReceiptRepository receiptRepository) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.syncService = syncService;
+        this.changeFeed = changeFeed;
+        this.receiptRepository = receiptRepository;
+    }
+
+    /**
+     * Used by bulk imports: each committed transaction publishes a single IMPORTED change event
+     * instead of serializing every entity into the change feed. Before each commit, {@code progress}
+     * gets the results of the leading bodies settled so far, null for the ones being committed, so
+     * the caller can save its position in the same transaction.
+     */
+    public List<Exception> insertAll(SnapResourceMeta meta, List<Map<String, Object>> bodies,
+                                     Consumer<List<Exception>> progress) {
+        return insert(meta, bodies, null, progress);
+    }
+
+    /**
+     * Like insertAll, but every record leaves a receipt keyed by its tracking id in the same transaction,
+     * so replaying a journal entry whose ack was lost in a crash does not insert it twice.
+     */
+    public List<Exception> insertRecords(SnapResourceMeta meta, List<IngestRecord> records) {
+        return insert(meta, records.stream().map(IngestRecord::body).toList(),
+                records.stream().map(IngestRecord::trackingId).toList(), null);
+    }
+
+    public void forget(Collection<String> trackingIds) {
+        receiptRepository.deleteAllByIdInBatch(trackingIds);
+    }
+
+    private List<Exception> insert(SnapResourceMeta meta, List<Map<String, Object>> bodies, List<String> trackingIds,
+                                   Consumer<List<Exception>> progress) {
+        try {
+            List<Exception> succeeded = Collections.nCopies(bodies.size(), null);
+            transactionTemplate.executeWithoutResult(status -> {
+                saveAll(meta, bodies, trackingIds);
+                if (progress != null) {
+                    progress.accept(succeeded);
+                }
+            });
+            return succeeded;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            log.warn("Batch of {} {} failed, retrying records individually: {}",
+                    bodies.size(), meta.path(), e.getMessage());
+        }
+
+        List<Exception> errors = new ArrayList<>(bodies.size());
+        for (int i = 0; i < bodies.size(); i++) {
+            List<Map<String, Object>> single = List.of(bodies.get(i));
+            List<String> singleId = trackingIds == null ? null : List.of(trackingIds.get(i));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    saveAll(meta, single, singleId);
+                    if (progress != null) {
+                        List<Exception> settled = new ArrayList<>(errors);
+                        settled.add(null);
+                        progress.accept(settled);
+                    }
+                });
+                errors.add(null);
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                errors.add(e);
+            }
+        }
+        return errors;
+    }
+
+    public static boolean isTransient(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof TransientDataAccessException
+                    || current instanceof DataAccessResourceFailureException
+                    || current instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void saveAll(SnapResourceMeta meta, List<Map<String, Object>> bodies, List<String> trackingIds) {
+        JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) meta.repository();
+        Set<String> written = trackingIds == null ? Set.of() : receiptRepository.findAllById(trackingIds).stream()
+                .map(SnapIngestReceipt::getTrackingId)
+                .collect(Collectors.toSet());
+
+        for (int i = 0; i < bodies.size(); i++) {
+            if (trackingIds != null) {
+                String trackingId = trackingIds.get(i);
+                if (written.contains(trackingId)) {
+                    log.debug("Skipping ingest record {} of {}, it was already written", trackingId, meta.path());
+                    continue;
+                }
+                SnapIngestReceipt receipt = new SnapIngestReceipt();
+                receipt.setTrackingId(trackingId);
+                receipt.setResource(meta.path());
+                entityManager.persist(receipt);
+            }
+
+            Object entity = objectMapper.convertValue(bodies.get(i), meta.entityClass());
+            syncService.stamp(meta, entity);
+            Object saved = repo.save(entity);
+            if (trackingIds != null) {
+                changeFeed.publish(meta, ChangeType.CREATED, null, saved);
+            }
+        }
+        if (trackingIds == null) {
+            changeFeed.publishImported(meta, bodies.size());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
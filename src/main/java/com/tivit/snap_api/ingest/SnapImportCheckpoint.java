@@ -0,0 +1,42 @@
+package com.tivit.snap_api.ingest;
+
+import com.tivit.snap_api.enums.ImportStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.List;
+
+/**
+ * Progress of an import, saved in the same transaction as each chunk it covers. The row is kept
+ * once the import completes, so resending the same import does not insert the records again.
+ */
+@Entity
+@Data
+@Table(name = "snap_import_checkpoint", indexes = @Index(columnList = "source"))
+public class SnapImportCheckpoint {
+
+    @Id
+    private String importId;
+
+    private String resource;
+
+    /** The imported file, null for imports sent in the request body. */
+    private String source;
+
+    @Enumerated(EnumType.STRING)
+    private ImportStatus status;
+
+    private long checkpoint;
+
+    private long imported;
+
+    private long failed;
+
+    @Column(length = 4000)
+    private String error;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<ImportReport.RecordError> errors;
+}
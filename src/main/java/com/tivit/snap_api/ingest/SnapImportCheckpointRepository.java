@@ -0,0 +1,23 @@
+package com.tivit.snap_api.ingest;
+
+import com.tivit.snap_api.enums.ImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SnapImportCheckpointRepository extends JpaRepository<SnapImportCheckpoint, String> {
+
+    Optional<SnapImportCheckpoint> findFirstBySourceAndStatusNot(String source, ImportStatus status);
+
+    @Modifying
+    @Query("update SnapImportCheckpoint c set c.status = :status, c.checkpoint = :checkpoint, c.imported = :imported,"
+            + " c.failed = :failed, c.error = :error, c.errors = :errors where c.importId = :importId")
+    int updateProgress(@Param("importId") String importId, @Param("status") ImportStatus status,
+                       @Param("checkpoint") long checkpoint, @Param("imported") long imported,
+                       @Param("failed") long failed, @Param("error") String error,
+                       @Param("errors") List<ImportReport.RecordError> errors);
+}
@@ -0,0 +1,297 @@
+package com.tivit.snap_api.ingest;
+
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.ImportStatus;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.*;
+
+@Component
+public class SnapImportService {
+    private static final Logger log = LoggerFactory.getLogger(SnapImportService.class);
+
+    private final SnapBatchWriter batchWriter;
+    private final SnapImportCheckpointRepository checkpointRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SnapApiProperties.Import properties;
+    private final Map<String, ImportJob> jobs;
+
+    public SnapImportService(SnapBatchWriter batchWriter, SnapImportCheckpointRepository checkpointRepository,
+                             EntityManager entityManager, PlatformTransactionManager transactionManager,
+                             SnapApiProperties properties) {
+        this.batchWriter = batchWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties.getImports();
+        int retention = this.properties.getJobRetention();
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<String, ImportJob>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+                return size() > retention && eldest.getValue().status != ImportStatus.RUNNING;
+            }
+        });
+    }
+
+    public Optional<ImportReport> status(String importId) {
+        ImportJob job = jobs.get(importId);
+        return job == null ? Optional.empty() : Optional.of(job.snapshot());
+    }
+
+    /**
+     * The saved progress of an import, read on the primary so a resume never starts from a
+     * replica that is behind.
+     */
+    public Optional<ImportReport> checkpoint(String importId) {
+        return transactionTemplate.execute(status -> checkpointRepository.findById(importId).map(this::toReport));
+    }
+
+    public Optional<ImportReport> interruptedImportOf(String source) {
+        return transactionTemplate.execute(status -> checkpointRepository
+                .findFirstBySourceAndStatusNot(source, ImportStatus.COMPLETED)
+                .map(this::toReport));
+    }
+
+    /**
+     * Streams the reader into the resource in chunks of {@code chunkSize} records, each one
+     * committed in its own transaction together with the import's checkpoint. When {@code previous}
+     * is given the first {@code previous.checkpoint()} records are skipped and its counters carried
+     * over. {@code source} names the imported file, null for a request body.
+     */
+    public ImportReport run(SnapResourceMeta meta, SnapRecordReader reader, String importId, ImportReport previous,
+                            String source) throws RecordTooLargeException {
+        ImportJob job;
+        try {
+            job = begin(meta, importId, previous);
+        } catch (IllegalStateException e) {
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+
+        long skip = job.checkpoint;
+        long recordNumber = 0;
+        List<Map<String, Object>> chunk = new ArrayList<>(properties.getChunkSize());
+        List<Long> chunkRecords = new ArrayList<>(properties.getChunkSize());
+        List<ImportReport.RecordError> chunkErrors = new ArrayList<>();
+
+        try (reader) {
+            while (true) {
+                Map<String, Object> body;
+                try {
+                    body = reader.read();
+                } catch (IllegalArgumentException e) {
+                    if (++recordNumber > skip) {
+                        chunkErrors.add(new ImportReport.RecordError(recordNumber, e.getMessage()));
+                    }
+                    continue;
+                }
+                if (body == null) {
+                    break;
+                }
+                if (++recordNumber <= skip) {
+                    continue;
+                }
+
+                chunk.add(body);
+                chunkRecords.add(recordNumber);
+                if (chunk.size() >= properties.getChunkSize()) {
+                    flush(meta, job, chunk, chunkRecords, chunkErrors, recordNumber, source, false);
+                }
+            }
+
+            flush(meta, job, chunk, chunkRecords, chunkErrors, recordNumber, source, true);
+            job.finish(ImportStatus.COMPLETED, null);
+            log.info("Import {} into {} completed", job.importId, meta.path());
+        } catch (RecordTooLargeException e) {
+            fail(meta, job, source, e);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            fail(meta, job, source, e);
+        }
+
+        return job.snapshot();
+    }
+
+    private void fail(SnapResourceMeta meta, ImportJob job, String source, Exception e) {
+        job.finish(ImportStatus.FAILED, e.getMessage());
+        log.error("Import {} into {} interrupted after record {}: {}",
+                job.importId, meta.path(), job.snapshot().checkpoint(), e.getMessage(), e);
+        try {
+            transactionTemplate.executeWithoutResult(status -> save(job.snapshot(), source));
+        } catch (RuntimeException saveError) {
+            log.warn("Error saving the failure of import {}: {}", job.importId, saveError.getMessage());
+        }
+    }
+
+    private ImportJob begin(SnapResourceMeta meta, String importId, ImportReport previous) {
+        synchronized (jobs) {
+            if (previous != null && !meta.path().equals(previous.resource())) {
+                throw new IllegalStateException("Import " + importId + " belongs to " + previous.resource());
+            }
+            if (previous != null && previous.status() == ImportStatus.COMPLETED) {
+                throw new IllegalStateException("Import " + importId + " is " + ImportStatus.COMPLETED);
+            }
+            ImportJob existing = jobs.get(importId);
+            if (existing != null && existing.status != ImportStatus.FAILED) {
+                throw new IllegalStateException("Import " + importId + " is " + existing.status);
+            }
+
+            ImportJob job = new ImportJob(importId, meta.path(), previous);
+            jobs.put(job.importId, job);
+            return job;
+        }
+    }
+
+    /**
+     * Writes the chunk, saving the checkpoint in the transaction of the last record committed, and
+     * on the last chunk the completion with it. When the chunk ends with failed records, nothing of
+     * them was written, so their checkpoint is saved on its own.
+     */
+    private void flush(SnapResourceMeta meta, ImportJob job, List<Map<String, Object>> chunk, List<Long> chunkRecords,
+                       List<ImportReport.RecordError> chunkErrors, long recordNumber, String source, boolean last) {
+        ImportStatus ended = last ? ImportStatus.COMPLETED : ImportStatus.RUNNING;
+        if (recordNumber <= job.checkpoint) {
+            if (last) {
+                ImportReport report = job.advanced(job.checkpoint, List.of(), chunkRecords, chunkErrors, ended);
+                transactionTemplate.executeWithoutResult(status -> save(report, source));
+            }
+            return;
+        }
+
+        List<Exception> results = chunk.isEmpty() ? List.of() : batchWriter.insertAll(meta, chunk, settled -> {
+            boolean whole = settled.size() == chunk.size();
+            long through = whole ? recordNumber : chunkRecords.get(settled.size() - 1);
+            save(job.advanced(through, settled, chunkRecords, chunkErrors, whole ? ended : ImportStatus.RUNNING),
+                    source);
+        });
+        ImportReport report = job.advanced(recordNumber, results, chunkRecords, chunkErrors, ended);
+        if (results.isEmpty() || results.get(results.size() - 1) != null) {
+            transactionTemplate.executeWithoutResult(status -> save(report, source));
+        }
+        job.advance(report);
+
+        chunk.clear();
+        chunkRecords.clear();
+        chunkErrors.clear();
+    }
+
+    /**
+     * An update, or an insert the first time: unlike save() on an assigned id, it does not read the
+     * row before writing it.
+     */
+    private void save(ImportReport report, String source) {
+        String error = report.error() == null ? null : abbreviate(report.error());
+        if (checkpointRepository.updateProgress(report.importId(), report.status(), report.checkpoint(),
+                report.imported(), report.failed(), error, report.errors()) > 0) {
+            return;
+        }
+
+        SnapImportCheckpoint checkpoint = new SnapImportCheckpoint();
+        checkpoint.setImportId(report.importId());
+        checkpoint.setResource(report.resource());
+        checkpoint.setSource(source);
+        checkpoint.setStatus(report.status());
+        checkpoint.setCheckpoint(report.checkpoint());
+        checkpoint.setImported(report.imported());
+        checkpoint.setFailed(report.failed());
+        checkpoint.setError(error);
+        checkpoint.setErrors(report.errors());
+        entityManager.persist(checkpoint);
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() <= 4000 ? error : error.substring(0, 4000);
+    }
+
+    private ImportReport toReport(SnapImportCheckpoint checkpoint) {
+        return new ImportReport(checkpoint.getImportId(), checkpoint.getResource(), checkpoint.getStatus(),
+                checkpoint.getCheckpoint(), checkpoint.getImported(), checkpoint.getFailed(), checkpoint.getError(),
+                checkpoint.getErrors() == null ? List.of() : List.copyOf(checkpoint.getErrors()));
+    }
+
+    private class ImportJob {
+        private final String importId;
+        private final String resource;
+        private final List<ImportReport.RecordError> errors = new ArrayList<>();
+        private volatile ImportStatus status = ImportStatus.RUNNING;
+        private long checkpoint;
+        private long imported;
+        private long failed;
+        private String error;
+
+        private ImportJob(String importId, String resource, ImportReport previous) {
+            this.importId = importId;
+            this.resource = resource;
+            if (previous == null) {
+                return;
+            }
+            this.checkpoint = previous.checkpoint();
+            this.imported = previous.imported();
+            this.failed = previous.failed();
+            if (previous.errors() != null) {
+                this.errors.addAll(previous.errors());
+            }
+        }
+
+        /**
+         * The report after the records up to {@code checkpoint}: the chunk records settled so far,
+         * null where written, and the malformed records read up to there.
+         */
+        private synchronized ImportReport advanced(long checkpoint, List<Exception> settled, List<Long> chunkRecords,
+                                                   List<ImportReport.RecordError> malformed, ImportStatus status) {
+            List<ImportReport.RecordError> failures = new ArrayList<>();
+            for (ImportReport.RecordError error : malformed) {
+                if (error.record() <= checkpoint) {
+                    failures.add(error);
+                }
+            }
+            long written = 0;
+            for (int i = 0; i < settled.size(); i++) {
+                if (settled.get(i) == null) {
+                    written++;
+                } else {
+                    failures.add(new ImportReport.RecordError(chunkRecords.get(i), settled.get(i).getMessage()));
+                }
+            }
+            failures.sort(Comparator.comparingLong(ImportReport.RecordError::record));
+
+            List<ImportReport.RecordError> kept = new ArrayList<>(errors);
+            for (ImportReport.RecordError failure : failures) {
+                if (kept.size() >= properties.getMaxErrors()) {
+                    break;
+                }
+                kept.add(failure);
+            }
+            return new ImportReport(importId, resource, status, checkpoint, imported + written,
+                    failed + failures.size(), error, List.copyOf(kept));
+        }
+
+        private synchronized void advance(ImportReport report) {
+            this.checkpoint = report.checkpoint();
+            this.imported = report.imported();
+            this.failed = report.failed();
+            this.errors.clear();
+            this.errors.addAll(report.errors());
+        }
+
+        private synchronized void finish(ImportStatus status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+
+        private synchronized ImportReport snapshot() {
+            return new ImportReport(importId, resource, status, checkpoint, imported, failed, error, List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.tivit.snap_api.ingest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Append-only NDJSON journal of the records waiting in an ingest queue. Appends are not forced one by
+ * one: {@link #sync(long)} lets every writer that arrives while an fsync is running share the next one.
+ * Once the file has grown by the compaction size, the live records are rewritten into a fresh file.
+ */
+public class SnapIngestJournal implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(SnapIngestJournal.class);
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final boolean syncWrites;
+    private final long compactSize;
+    private final Map<String, IngestRecord> live = new LinkedHashMap<>();
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    private long written;
+    private long fileSize;
+    private long compactedSize;
+    private volatile long synced;
+
+    public SnapIngestJournal(Path file, ObjectMapper objectMapper, boolean syncWrites, long compactSize) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.syncWrites = syncWrites;
+        this.compactSize = compactSize;
+    }
+
+    public synchronized List<IngestRecord> recover() throws IOException {
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        JsonNode node = objectMapper.readTree(line);
+                        if (node.has("ack")) {
+                            node.get("ack").forEach(id -> live.remove(id.asText()));
+                        } else {
+                            String id = node.get("id").asText();
+                            Map<String, Object> body = objectMapper.convertValue(node.get("body"),
+                                    new TypeReference<Map<String, Object>>() {});
+                            live.put(id, new IngestRecord(id, body));
+                        }
+                    } catch (Exception e) {
+                        log.warn("Skipping unreadable ingest journal entry in {}: {}", file, e.getMessage());
+                    }
+                }
+            }
+        } else {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+
+        rewrite();
+        return new ArrayList<>(live.values());
+    }
+
+    /**
+     * Returns the position to pass to {@link #sync(long)} before telling the client the record is safe.
+     */
+    public synchronized long append(IngestRecord record) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", record.trackingId());
+        node.set("body", objectMapper.valueToTree(record.body()));
+        write(node);
+        live.put(record.trackingId(), record);
+        return written;
+    }
+
+    public void sync(long position) throws IOException {
+        if (!syncWrites || synced >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = written;
+                current = channel;
+            }
+            current.force(false);
+            synced = target;
+        }
+    }
+
+    /**
+     * The ack is forced before returning, so callers may drop anything that only guarded against
+     * replaying these records.
+     */
+    public void acknowledge(Collection<String> trackingIds) throws IOException {
+        if (trackingIds.isEmpty()) {
+            return;
+        }
+
+        synchronized (syncLock) {
+            synchronized (this) {
+                trackingIds.forEach(live::remove);
+                if (fileSize - compactedSize >= compactSize) {
+                    rewrite();
+                    return;
+                }
+
+                ObjectNode node = objectMapper.createObjectNode();
+                ArrayNode ids = node.putArray("ack");
+                trackingIds.forEach(ids::add);
+                write(node);
+                if (syncWrites) {
+                    channel.force(false);
+                }
+                synced = written;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Replaces the journal with only the live records. Positions handed out by append keep counting up,
+     * so a pending sync for a record carried over is satisfied by the forced rewrite.
+     */
+    private void rewrite() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        channel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        fileSize = 0;
+        for (IngestRecord record : live.values()) {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("id", record.trackingId());
+            node.set("body", objectMapper.valueToTree(record.body()));
+            write(node);
+        }
+        channel.force(false);
+        channel.close();
+
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        compactedSize = fileSize;
+        synced = written;
+        log.debug("Rewrote ingest journal {} with {} live records", file, live.size());
+    }
+
+    /**
+     * The rename is only durable once the directory entry is, otherwise a crash can bring back the old
+     * journal and replay what was already acknowledged. Platforms that cannot open a directory skip it.
+     */
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            log.debug("Could not sync the directory of ingest journal {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void write(JsonNode node) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(node);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written += json.length + 1;
+        fileSize += json.length + 1;
+    }
+}
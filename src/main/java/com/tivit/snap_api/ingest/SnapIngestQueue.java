@@ -0,0 +1,243 @@
+package com.tivit.snap_api.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.IngestStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@DependsOn("snapInitializer")
+public class SnapIngestQueue {
+    private static final Logger log = LoggerFactory.getLogger(SnapIngestQueue.class);
+
+    private final SnapBatchWriter batchWriter;
+    private final ObjectMapper objectMapper;
+    private final SnapApiProperties.Ingest properties;
+    private final Map<String, ResourceQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, IngestResult> results;
+    private volatile boolean accepting = true;
+    private volatile boolean running = true;
+
+    public SnapIngestQueue(SnapBatchWriter batchWriter, ObjectMapper objectMapper, SnapApiProperties properties) {
+        this.batchWriter = batchWriter;
+        this.objectMapper = objectMapper;
+        this.properties = properties.getIngest();
+        int retention = this.properties.getStatusRetention();
+        this.results = Collections.synchronizedMap(new LinkedHashMap<String, IngestResult>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IngestResult> eldest) {
+                return size() > retention;
+            }
+        });
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        for (SnapResourceMeta meta : SnapRegistry.getAll()) {
+            if (!meta.asyncIngest()) {
+                continue;
+            }
+
+            String name = meta.path().replaceAll("[^A-Za-z0-9_-]", "");
+            SnapIngestJournal journal = new SnapIngestJournal(
+                    Path.of(properties.getSpillDirectory(), name + ".ndjson"), objectMapper, properties.isSyncWrites(),
+                    properties.getJournalCompactSize().toBytes());
+            List<IngestRecord> recovered = journal.recover();
+            for (IngestRecord record : recovered) {
+                results.put(record.trackingId(), new IngestResult(record.trackingId(), IngestStatus.PENDING, null));
+            }
+
+            ResourceQueue queue = new ResourceQueue(meta, journal, recovered);
+            queues.put(meta.path(), queue);
+            queue.worker.start();
+
+            if (!recovered.isEmpty()) {
+                log.info("Recovered {} pending ingest records for {}", recovered.size(), meta.path());
+            }
+        }
+    }
+
+    /**
+     * Stops accepting records, lets the workers write what is queued until the shutdown timeout, and
+     * only then interrupts them. Records left over stay in the journal and are recovered on the next start.
+     */
+    @PreDestroy
+    public void stop() {
+        for (ResourceQueue queue : queues.values()) {
+            synchronized (queue) {
+                accepting = false;
+            }
+        }
+
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        try {
+            for (ResourceQueue queue : queues.values()) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining > 0) {
+                    queue.worker.join(remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        running = false;
+        for (ResourceQueue queue : queues.values()) {
+            if (queue.worker.isAlive()) {
+                log.warn("Ingest queue for {} did not drain in {}, {} records left in the journal",
+                        queue.meta.path(), properties.getShutdownTimeout(), queue.records.size());
+                queue.worker.interrupt();
+            }
+            try {
+                queue.worker.join(properties.getFlushInterval().toMillis() * 10);
+                queue.journal.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                log.warn("Error closing ingest journal for {}: {}", queue.meta.path(), e.getMessage());
+            }
+        }
+    }
+
+    public Optional<String> submit(SnapResourceMeta meta, Map<String, Object> body) throws IOException {
+        ResourceQueue queue = queues.get(meta.path());
+        if (queue == null) {
+            throw new IllegalStateException("Resource " + meta.path() + " is not configured for async ingest");
+        }
+
+        IngestRecord record = new IngestRecord(UUID.randomUUID().toString(), body);
+        long position;
+        synchronized (queue) {
+            if (!accepting || queue.records.remainingCapacity() == 0) {
+                return Optional.empty();
+            }
+
+            position = queue.journal.append(record);
+            results.put(record.trackingId(), new IngestResult(record.trackingId(), IngestStatus.PENDING, null));
+            queue.records.add(record);
+        }
+
+        // outside the queue lock, so concurrent submits share one fsync
+        queue.journal.sync(position);
+        return Optional.of(record.trackingId());
+    }
+
+    public Optional<IngestResult> status(String trackingId) {
+        return Optional.ofNullable(results.get(trackingId));
+    }
+
+    private void drain(ResourceQueue queue) {
+        List<IngestRecord> recovered = new ArrayList<>(queue.recovered);
+        queue.recovered.clear();
+        for (int i = 0; i < recovered.size() && running; i += properties.getBatchSize()) {
+            flush(queue, recovered.subList(i, Math.min(recovered.size(), i + properties.getBatchSize())));
+        }
+
+        long interval = properties.getFlushInterval().toNanos();
+        while (running) {
+            try {
+                IngestRecord first = queue.records.poll(interval, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    if (!accepting && queue.records.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+
+                List<IngestRecord> batch = new ArrayList<>(properties.getBatchSize());
+                batch.add(first);
+                long deadline = System.nanoTime() + interval;
+                while (batch.size() < properties.getBatchSize()) {
+                    queue.records.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    IngestRecord next = queue.records.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(queue, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(ResourceQueue queue, List<IngestRecord> batch) {
+        while (running) {
+            try {
+                List<Exception> errors = batchWriter.insertRecords(queue.meta, batch);
+                List<String> trackingIds = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    String trackingId = batch.get(i).trackingId();
+                    Exception error = errors.get(i);
+                    results.put(trackingId, error == null
+                            ? new IngestResult(trackingId, IngestStatus.COMMITTED, null)
+                            : new IngestResult(trackingId, IngestStatus.FAILED, error.getMessage()));
+                    trackingIds.add(trackingId);
+                }
+                queue.journal.acknowledge(trackingIds);
+                forget(queue, trackingIds);
+                log.debug("Flushed {} ingest records for {}", batch.size(), queue.meta.path());
+                return;
+            } catch (IOException e) {
+                log.error("Error acknowledging ingest journal for {}: {}", queue.meta.path(), e.getMessage(), e);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Transient failure flushing {} ingest records for {}, retrying: {}",
+                        batch.size(), queue.meta.path(), e.getMessage());
+                try {
+                    Thread.sleep(properties.getRetryBackoff().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void forget(ResourceQueue queue, List<String> trackingIds) {
+        try {
+            batchWriter.forget(trackingIds);
+        } catch (RuntimeException e) {
+            log.warn("Error removing {} ingest receipts for {}: {}", trackingIds.size(), queue.meta.path(),
+                    e.getMessage());
+        }
+    }
+
+    private class ResourceQueue {
+        private final SnapResourceMeta meta;
+        private final SnapIngestJournal journal;
+        private final List<IngestRecord> recovered;
+        private final BlockingQueue<IngestRecord> records = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        private final Thread worker;
+
+        private ResourceQueue(SnapResourceMeta meta, SnapIngestJournal journal, List<IngestRecord> recovered) {
+            this.meta = meta;
+            this.journal = journal;
+            this.recovered = new ArrayList<>(recovered);
+            this.worker = new Thread(() -> drain(this), "snap-ingest" + meta.path().replace('/', '-'));
+            this.worker.setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.tivit.snap_api.ingest;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "snap_ingest_receipt")
+public class SnapIngestReceipt {
+
+    @Id
+    private String trackingId;
+
+    private String resource;
+}
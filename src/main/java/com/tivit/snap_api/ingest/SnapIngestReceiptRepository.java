@@ -0,0 +1,6 @@
+package com.tivit.snap_api.ingest;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SnapIngestReceiptRepository extends JpaRepository<SnapIngestReceipt, String> {
+}
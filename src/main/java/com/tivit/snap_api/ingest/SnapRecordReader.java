@@ -0,0 +1,15 @@
+package com.tivit.snap_api.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+public interface SnapRecordReader extends Closeable {
+
+    /**
+     * Returns the next record, or null at the end of the input. A malformed record
+     * throws IllegalArgumentException and the reader moves on to the next one; a record over the
+     * size limit throws RecordTooLargeException.
+     */
+    Map<String, Object> read() throws IOException;
+}
@@ -3,15 +3,25 @@ package com.tivit.snap_api.init;
 import com.tivit.snap_api.annotations.SnapResource;
 import com.tivit.snap_api.core.SnapRegistry;
 import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.Partitioning;
+import com.tivit.snap_api.partition.SnapPartitionConfig;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.domain.EntityScanPackages;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.support.Repositories;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
@@ -19,6 +29,7 @@ import java.lang.reflect.Type;
 import java.util.*;
 
 @Component
+@ImportRuntimeHints(SnapRuntimeHints.class)
 public class SnapInitializer {
     private static final Logger log = LoggerFactory.getLogger(SnapInitializer.class);
 
@@ -45,6 +56,10 @@ public class SnapInitializer {
             processEntity(entityType);
         }
 
+        for (Class<?> entityType : partitionedEntities()) {
+            processEntity(entityType);
+        }
+
         log.info("SnapREST initialized with {} resources", SnapRegistry.getAll().size());
     }
 
@@ -56,6 +71,16 @@ public class SnapInitializer {
             validateSearchableFields(entityClass, annotation.searchableFields());
         }
 
+        if (annotation.aggregatableFields().length > 0) {
+            validateAggregatableFields(entityClass, annotation.aggregatableFields());
+        }
+
+        if (annotation.partitioning() != Partitioning.NONE) {
+            validatePartitioning(entityClass, annotation);
+            register(annotation, entityClass, null, findIdField(entityClass).getType(), true, null);
+            return;
+        }
+
         Optional<Object> repoObj = repositories.getRepositoryFor(entityClass);
         
         if (repoObj.isEmpty()) {
@@ -76,20 +101,56 @@ public class SnapInitializer {
                     entityClass.getName());
         }
 
+        String syncField = annotation.syncField().isEmpty() ? null : annotation.syncField();
+        if (syncField != null) {
+            validateSyncField(entityClass, syncField, supportsSpec);
+        }
+
+        register(annotation, entityClass, repository, idClass, supportsSpec, syncField);
+    }
+
+    private void register(SnapResource annotation, Class<?> entityClass, JpaRepository<?, ?> repository,
+                          Class<?> idClass, boolean supportsSpec, String syncField) {
         SnapResourceMeta meta = new SnapResourceMeta(
                 annotation.path(),
                 Arrays.asList(annotation.expose()),
                 Arrays.asList(annotation.searchableFields()),
+                Arrays.asList(annotation.aggregatableFields()),
                 repository,
                 entityClass,
                 idClass,
-                supportsSpec
+                supportsSpec,
+                syncField,
+                annotation.asyncIngest(),
+                annotation.partitioning()
         );
 
         SnapRegistry.register(annotation.path(), meta);
         log.info("Registered SnapResource: {}", annotation.path());
     }
 
+    /**
+     * Partitioned entities are left out of the primary persistence unit (see SnapPartitionConfig), so
+     * no repository exists for them: they are found by scanning the entity packages.
+     */
+    private List<Class<?>> partitionedEntities() {
+        List<String> packages = EntityScanPackages.get(context).getPackageNames();
+        if (packages.isEmpty() && AutoConfigurationPackages.has(context)) {
+            packages = AutoConfigurationPackages.get(context);
+        }
+
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.setResourceLoader(context);
+        scanner.addIncludeFilter((reader, readers) -> SnapPartitionConfig.isPartitioned(reader.getAnnotationMetadata()));
+        List<Class<?>> entities = new ArrayList<>();
+        for (String basePackage : packages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                entities.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), context.getClassLoader()));
+            }
+        }
+        return entities;
+    }
+
     private Class<?> getIdClass(JpaRepository<?, ?> repository) {
         try {
             for (Type type : repository.getClass().getGenericInterfaces()) {
@@ -122,4 +183,80 @@ public class SnapInitializer {
             }
         }
     }
-}
\ No newline at end of file
+
+    private void validateAggregatableFields(Class<?> entityClass, String[] aggregatableFields) {
+        for (String fieldPath : aggregatableFields) {
+            Class<?> currentClass = entityClass;
+
+            for (String part : fieldPath.split("\\.")) {
+                try {
+                    currentClass = currentClass.getDeclaredField(part).getType();
+                } catch (NoSuchFieldException e) {
+                    throw new IllegalStateException(
+                            "Campo '" + fieldPath + "' não encontrado na entidade " +
+                                    entityClass.getSimpleName());
+                }
+            }
+
+            boolean numeric = Number.class.isAssignableFrom(currentClass)
+                    || (currentClass.isPrimitive() && currentClass != boolean.class && currentClass != char.class);
+            if (!numeric) {
+                throw new IllegalStateException(
+                        "Campo agregável '" + fieldPath + "' da entidade " +
+                                entityClass.getSimpleName() + " deve ser numérico");
+            }
+        }
+    }
+
+    private void validateSyncField(Class<?> entityClass, String syncField, boolean supportsSpec) {
+        Class<?> fieldType;
+        try {
+            fieldType = entityClass.getDeclaredField(syncField).getType();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(
+                    "Campo de sincronização '" + syncField + "' não encontrado na entidade " +
+                            entityClass.getSimpleName());
+        }
+
+        if (fieldType != Long.class && fieldType != long.class) {
+            throw new IllegalStateException(
+                    "Campo de sincronização '" + syncField + "' da entidade " +
+                            entityClass.getSimpleName() + " deve ser do tipo Long");
+        }
+
+        if (!supportsSpec) {
+            throw new IllegalStateException(
+                    "Entidade " + entityClass.getSimpleName() +
+                            " declara syncField mas o repositório não implementa JpaSpecificationExecutor");
+        }
+    }
+
+    private void validatePartitioning(Class<?> entityClass, SnapResource annotation) {
+        String name = entityClass.getSimpleName();
+        if (!annotation.syncField().isEmpty() || annotation.asyncIngest() || annotation.aggregatableFields().length > 0) {
+            throw new IllegalStateException(
+                    "Entidade particionada " + name + " não suporta syncField, asyncIngest nem aggregatableFields");
+        }
+
+        Field id = findIdField(entityClass);
+        if (id == null) {
+            throw new IllegalStateException("Entidade particionada " + name + " deve declarar um campo @Id");
+        }
+        if (id.isAnnotationPresent(GeneratedValue.class)) {
+            throw new IllegalStateException(
+                    "Entidade particionada " + name + " não pode usar @GeneratedValue no id, " +
+                            "o id define o shard e deve ser atribuído pela aplicação");
+        }
+    }
+
+    private Field findIdField(Class<?> entityClass) {
+        for (Class<?> current = entityClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Id.class)) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.tivit.snap_api.init;
+
+import com.tivit.snap_api.Main;
+import com.tivit.snap_api.annotations.SnapResource;
+import com.tivit.snap_api.dto.*;
+import com.tivit.snap_api.ingest.ImportReport;
+import com.tivit.snap_api.ingest.IngestRecord;
+import com.tivit.snap_api.ingest.IngestResult;
+import com.tivit.snap_api.ingest.SnapIngestReceipt;
+import com.tivit.snap_api.partition.KeysetCursor;
+import com.tivit.snap_api.sync.SnapSyncClock;
+import com.tivit.snap_api.sync.SnapTombstone;
+import jakarta.persistence.Embedded;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class SnapRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final MemberCategory[] CATEGORIES = {
+            MemberCategory.DECLARED_FIELDS,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_DECLARED_METHODS,
+            MemberCategory.INVOKE_PUBLIC_METHODS
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        Set<Class<?>> types = new HashSet<>();
+
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(SnapResource.class));
+        for (BeanDefinition candidate : scanner.findCandidateComponents(Main.class.getPackageName())) {
+            collect(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader), types);
+        }
+
+        types.addAll(List.of(
+                SnapTombstone.class,
+                SnapSyncClock.class,
+                PageResponse.class,
+                SyncResponse.class,
+                SyncResponse.Deleted.class,
+                AggregateResponse.class,
+                BatchRequest.class,
+                BatchRequest.Operation.class,
+                BatchResponse.class,
+                BatchResponse.Result.class,
+                ContinuationResponse.class,
+                KeysetCursor.class,
+                IngestRecord.class,
+                IngestResult.class,
+                SnapIngestReceipt.class,
+                ImportReport.class,
+                ImportReport.RecordError.class
+        ));
+
+        for (Class<?> type : types) {
+            hints.reflection().registerType(type, CATEGORIES);
+        }
+    }
+
+    private void collect(Class<?> type, Set<Class<?>> types) {
+        if (!types.add(type)) {
+            return;
+        }
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Embedded.class)) {
+                    collect(field.getType(), types);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.tivit.snap_api.init;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapRequestCoalescer;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.Endpoint;
+import com.tivit.snap_api.rest.SnapGenericController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs once every singleton exists, still inside the context refresh: before the web server starts
+ * and the readiness probe reports UP, and before -Dspring.context.exit=onRefresh stops the CDS
+ * training run, so the archive also records the classes the warmup loads.
+ */
+@Component
+public class SnapWarmup implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(SnapWarmup.class);
+
+    private final SnapGenericController controller;
+    private final ObjectMapper objectMapper;
+    private final SnapApiProperties.Warmup properties;
+
+    public SnapWarmup(SnapGenericController controller, ObjectMapper objectMapper, SnapApiProperties properties) {
+        this.controller = controller;
+        this.objectMapper = objectMapper;
+        this.properties = properties.getWarmup();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        // warmup reads stay out of the coalescer, so its hit ratio only reflects real traffic
+        SnapRequestCoalescer.bypass(() -> {
+            for (SnapResourceMeta meta : SnapRegistry.getAll()) {
+                try {
+                    for (int i = 0; i < properties.getIterations(); i++) {
+                        warmup(meta);
+                    }
+                } catch (Exception e) {
+                    log.warn("Warmup failed for resource {}: {}", meta.path(), e.getMessage());
+                }
+            }
+        });
+
+        log.info("SnapREST warmup finished in {} ms ({} resources, {} iterations), JVM uptime {} ms",
+                (System.nanoTime() - start) / 1_000_000, SnapRegistry.getAll().size(), properties.getIterations(),
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private void warmup(SnapResourceMeta meta) throws Exception {
+        String resource = meta.path();
+        String firstId = null;
+
+        if (meta.isEndpointEnabled(Endpoint.GET_ALL)) {
+            ResponseEntity<?> response = controller.findAll(resource, new HashMap<>(), PageRequest.of(0, 20));
+            JsonNode page = response.getBody() instanceof byte[] json
+                    ? objectMapper.readTree(json)
+                    : objectMapper.valueToTree(response.getBody());
+
+            JsonNode id = page.path("content").path(0).path("id");
+            if (!id.isMissingNode() && !id.isNull()) {
+                firstId = id.asText();
+            }
+
+            for (String field : meta.searchableFields()) {
+                Map<String, String> params = new HashMap<>();
+                params.put(field, "warmup");
+                objectMapper.writeValueAsBytes(controller.findAll(resource, params, PageRequest.of(0, 20)).getBody());
+            }
+        }
+
+        if (meta.isEndpointEnabled(Endpoint.GET_BY_ID) && firstId != null) {
+            objectMapper.writeValueAsBytes(controller.findById(resource, firstId).getBody());
+        }
+    }
+}
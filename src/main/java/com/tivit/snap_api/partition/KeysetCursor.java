@@ -0,0 +1,46 @@
+package com.tivit.snap_api.partition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position after the last row of a merged page: the sort it was produced with (always ending
+ * with the id) and that row's values for each sort property.
+ */
+public record KeysetCursor(List<String> properties, List<Sort.Direction> directions, List<Object> values) {
+
+    public Sort toSort() {
+        List<Sort.Order> orders = new ArrayList<>(properties.size());
+        for (int i = 0; i < properties.size(); i++) {
+            orders.add(new Sort.Order(directions.get(i), properties.get(i)));
+        }
+        return Sort.by(orders);
+    }
+
+    public static KeysetCursor decode(String token, ObjectMapper objectMapper) {
+        try {
+            KeysetCursor cursor = objectMapper.readValue(Base64.getUrlDecoder().decode(token), KeysetCursor.class);
+            if (cursor.properties().isEmpty()
+                    || cursor.properties().size() != cursor.directions().size()
+                    || cursor.properties().size() != cursor.values().size()) {
+                throw new IllegalArgumentException("Invalid continuation token: " + token);
+            }
+            return cursor;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+        }
+    }
+
+    public String encode(ObjectMapper objectMapper) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode continuation token: " + e.getMessage(), e);
+        }
+    }
+}
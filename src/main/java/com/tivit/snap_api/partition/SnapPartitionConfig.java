@@ -0,0 +1,39 @@
+package com.tivit.snap_api.partition;
+
+import com.tivit.snap_api.annotations.SnapResource;
+import com.tivit.snap_api.enums.Partitioning;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.orm.jpa.persistenceunit.ManagedClassNameFilter;
+
+import java.io.IOException;
+
+@Configuration(proxyBeanMethods = false)
+public class SnapPartitionConfig {
+
+    /**
+     * Partitioned entities belong to the shard persistence units only: the primary one does not map
+     * them nor create their tables on the primary database.
+     */
+    @Bean
+    public ManagedClassNameFilter snapPartitionedEntityFilter(ResourceLoader resourceLoader) {
+        MetadataReaderFactory readers = new CachingMetadataReaderFactory(resourceLoader);
+        return className -> {
+            try {
+                return !isPartitioned(readers.getMetadataReader(className).getAnnotationMetadata());
+            } catch (IOException e) {
+                return true;
+            }
+        };
+    }
+
+    public static boolean isPartitioned(AnnotationMetadata metadata) {
+        MergedAnnotation<SnapResource> resource = metadata.getAnnotations().get(SnapResource.class);
+        return resource.isPresent() && resource.getEnum("partitioning", Partitioning.class) != Partitioning.NONE;
+    }
+}
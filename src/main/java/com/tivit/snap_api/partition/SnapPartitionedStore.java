@@ -0,0 +1,471 @@
+package com.tivit.snap_api.partition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.dto.ContinuationResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Reads and writes resources declared with a partitioning scheme. Each configured shard gets its own
+ * datasource and persistence unit; rows are placed by a hash of the id, so point operations touch one
+ * shard and list/count queries fan out to all of them and are merged here.
+ * <p>
+ * Merging assumes the shards order values the same way Java does, with nulls as the lowest value
+ * (the H2 and MySQL default). Changing the number of shards requires moving the data.
+ */
+@Component
+@DependsOn("snapInitializer")
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class SnapPartitionedStore {
+    private static final Logger log = LoggerFactory.getLogger(SnapPartitionedStore.class);
+
+    private final SnapApiProperties properties;
+    private final EntityManagerFactoryBuilder entityManagerFactoryBuilder;
+    private final JpaProperties jpaProperties;
+    private final HibernateProperties hibernateProperties;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<HibernatePropertiesCustomizer> hibernatePropertiesCustomizers;
+    private final List<Shard> shards = new ArrayList<>();
+    private ExecutorService executor;
+
+    public SnapPartitionedStore(SnapApiProperties properties, EntityManagerFactoryBuilder entityManagerFactoryBuilder,
+                                JpaProperties jpaProperties, HibernateProperties hibernateProperties,
+                                ObjectMapper objectMapper,
+                                ObjectProvider<HibernatePropertiesCustomizer> hibernatePropertiesCustomizers) {
+        this.properties = properties;
+        this.entityManagerFactoryBuilder = entityManagerFactoryBuilder;
+        this.jpaProperties = jpaProperties;
+        this.hibernateProperties = hibernateProperties;
+        this.objectMapper = objectMapper;
+        this.hibernatePropertiesCustomizers = hibernatePropertiesCustomizers;
+    }
+
+    @PostConstruct
+    public void start() {
+        Class<?>[] entityClasses = SnapRegistry.getAll().stream()
+                .filter(SnapResourceMeta::isPartitioned)
+                .map(SnapResourceMeta::entityClass)
+                .toArray(Class<?>[]::new);
+        if (entityClasses.length == 0) {
+            return;
+        }
+
+        List<SnapApiProperties.Replica> configured = properties.getDatasource().getShards();
+        if (configured.isEmpty()) {
+            throw new IllegalStateException(
+                    "Recursos particionados exigem snap.api.datasource.shards configurado");
+        }
+
+        Map<String, Object> jpaSettings = hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings()
+                        .hibernatePropertiesCustomizers(hibernatePropertiesCustomizers.orderedStream().toList()));
+        for (int i = 0; i < configured.size(); i++) {
+            shards.add(openShard(i, configured.get(i), entityClasses, jpaSettings));
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(properties.getPartition().getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "snap-shard-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Partitioned {} resource(s) across {} shard(s)", entityClasses.length, shards.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (Shard shard : shards) {
+            shard.entityManagerFactory().close();
+            shard.dataSource().close();
+        }
+    }
+
+    public Optional<Object> findById(SnapResourceMeta meta, Object id) {
+        Shard shard = shardFor(id);
+        return Optional.ofNullable(shard.readTemplate().execute(status ->
+                shard.entityManager().find(meta.entityClass(), id)));
+    }
+
+    /**
+     * Empty when a row with the entity's id already exists on its shard.
+     */
+    public Optional<Object> create(SnapResourceMeta meta, Object entity) {
+        Object id = idOf(entity);
+        if (id == null) {
+            id = generateId(meta, entity);
+        }
+
+        Object assigned = id;
+        Shard shard = shardFor(id);
+        return Optional.ofNullable(shard.writeTemplate().execute(status -> {
+            if (shard.entityManager().find(meta.entityClass(), assigned) != null) {
+                return null;
+            }
+            shard.entityManager().persist(entity);
+            return entity;
+        }));
+    }
+
+    /**
+     * Partitioned entities are not mapped by the primary persistence unit, so their id is read
+     * through a shard's.
+     */
+    public Object idOf(Object entity) {
+        return shards.get(0).entityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    public Optional<Object> update(SnapResourceMeta meta, Object id, Object entity) {
+        Shard shard = shardFor(id);
+        return Optional.ofNullable(shard.writeTemplate().execute(status -> {
+            if (shard.entityManager().find(meta.entityClass(), id) == null) {
+                return null;
+            }
+            return shard.entityManager().merge(entity);
+        }));
+    }
+
+    public Optional<Object> delete(SnapResourceMeta meta, Object id) {
+        Shard shard = shardFor(id);
+        return Optional.ofNullable(shard.writeTemplate().execute(status -> {
+            Object existing = shard.entityManager().find(meta.entityClass(), id);
+            if (existing != null) {
+                shard.entityManager().remove(existing);
+            }
+            return existing;
+        }));
+    }
+
+    public long count(SnapResourceMeta meta, Specification<Object> spec) {
+        return scatter(shard -> {
+            EntityManager entityManager = shard.entityManager();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> query = cb.createQuery(Long.class);
+            Root<Object> root = query.from((Class<Object>) meta.entityClass());
+            Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+            return entityManager.createQuery(query).getSingleResult();
+        }).stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Offset page over all shards: every shard returns its first {@code offset + size} rows in the
+     * requested order and the merged stream is cut at the page boundary.
+     */
+    public Page<Object> findAll(SnapResourceMeta meta, Specification<Object> spec, Pageable pageable) {
+        int maxWindow = properties.getPartition().getMaxMergeWindow();
+        if (pageable.isUnpaged()) {
+            pageable = PageRequest.of(0, maxWindow, pageable.getSort());
+        }
+
+        long window = pageable.getOffset() + pageable.getPageSize();
+        if (window > maxWindow) {
+            throw new IllegalArgumentException("Page is too deep for a partitioned resource (offset + size > "
+                    + maxWindow + "), follow the continuation token instead");
+        }
+
+        Sort sort = withIdTieBreaker(meta, pageable.getSort());
+        List<Object> merged = merge(sort, (int) window, null, spec, meta);
+        List<Object> content = merged.size() > pageable.getOffset()
+                ? merged.subList((int) pageable.getOffset(), merged.size())
+                : List.of();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(meta, spec));
+    }
+
+    /**
+     * Keyset page over all shards: every shard returns its first {@code size} rows after the cursor,
+     * so the cost does not grow with the depth of the page.
+     */
+    public ContinuationResponse<Object> findAfter(SnapResourceMeta meta, Specification<Object> spec,
+                                                  KeysetCursor cursor, int size) {
+        Sort sort = cursor.toSort();
+        List<Object> content = merge(sort, size + 1, cursor, spec, meta);
+        boolean last = content.size() <= size;
+        if (!last) {
+            content = content.subList(0, size);
+        }
+        String continuation = last || content.isEmpty() ? null : continuationAfter(meta, sort, content.get(content.size() - 1));
+        return new ContinuationResponse<>(content, size, continuation, last);
+    }
+
+    public String continuationAfter(SnapResourceMeta meta, Sort sort, Object entity) {
+        Sort keyset = withIdTieBreaker(meta, sort);
+        List<String> names = new ArrayList<>();
+        List<Sort.Direction> directions = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (Sort.Order order : keyset) {
+            names.add(order.getProperty());
+            directions.add(order.getDirection());
+            values.add(valueOf(entity, order.getProperty()));
+        }
+        return new KeysetCursor(names, directions, values).encode(objectMapper);
+    }
+
+    private List<Object> merge(Sort sort, int limit, KeysetCursor cursor, Specification<Object> spec,
+                               SnapResourceMeta meta) {
+        List<List<Object>> partial = scatter(shard -> {
+            EntityManager entityManager = shard.entityManager();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            Class<Object> type = (Class<Object>) meta.entityClass();
+            CriteriaQuery<Object> query = cb.createQuery(type);
+            Root<Object> root = query.from(type);
+            query.select(root);
+
+            List<Predicate> predicates = new ArrayList<>();
+            Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+            if (cursor != null) {
+                predicates.add(after(cursor, root, cb));
+            }
+            query.where(predicates.toArray(new Predicate[0]));
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+            return entityManager.createQuery(query)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .setMaxResults(limit)
+                    .getResultList();
+        });
+
+        Comparator<Object> comparator = comparator(sort);
+        PriorityQueue<PeekingIterator> heads = new PriorityQueue<>((a, b) -> comparator.compare(a.peek(), b.peek()));
+        for (List<Object> rows : partial) {
+            if (!rows.isEmpty()) {
+                heads.add(new PeekingIterator(rows.iterator()));
+            }
+        }
+
+        List<Object> merged = new ArrayList<>(Math.min(limit, partial.stream().mapToInt(List::size).sum()));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            PeekingIterator head = heads.poll();
+            merged.add(head.next());
+            if (head.hasNext()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private Predicate after(KeysetCursor cursor, Root<Object> root, CriteriaBuilder cb) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> ties = new ArrayList<>();
+
+        for (int i = 0; i < cursor.properties().size(); i++) {
+            Path<Comparable> path = (Path<Comparable>) resolve(root, cursor.properties().get(i));
+            Comparable value = (Comparable) objectMapper.convertValue(cursor.values().get(i), path.getJavaType());
+            boolean descending = cursor.directions().get(i) == Sort.Direction.DESC;
+
+            Predicate beyond;
+            if (value == null) {
+                beyond = descending ? cb.disjunction() : cb.isNotNull(path);
+            } else {
+                beyond = descending ? cb.or(cb.lessThan(path, value), cb.isNull(path)) : cb.greaterThan(path, value);
+            }
+
+            List<Predicate> alternative = new ArrayList<>(ties);
+            alternative.add(beyond);
+            alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+            ties.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+        }
+        return cb.or(alternatives.toArray(new Predicate[0]));
+    }
+
+    private <T> List<T> scatter(Function<Shard, T> work) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> shard.readTemplate().execute(status -> work.apply(shard)), executor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            // a bad filter or sort fails on every shard; surface it as the caller would see it unsharded
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Shard shardFor(Object id) {
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("No shards are configured");
+        }
+        int hash = String.valueOf(id).hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return shards.get(Math.floorMod(hash, shards.size()));
+    }
+
+    private Object generateId(SnapResourceMeta meta, Object entity) {
+        String idName = idProperty(meta);
+        DirectFieldAccessor accessor = new DirectFieldAccessor(entity);
+        Class<?> idType = accessor.getPropertyType(idName);
+        Object id;
+        if (idType == UUID.class) {
+            id = UUID.randomUUID();
+        } else if (idType == String.class) {
+            id = UUID.randomUUID().toString();
+        } else {
+            throw new IllegalArgumentException("An id is required to create a partitioned " + meta.path());
+        }
+        accessor.setPropertyValue(idName, id);
+        return id;
+    }
+
+    private String idProperty(SnapResourceMeta meta) {
+        EntityType<?> type = shards.get(0).entityManagerFactory().getMetamodel().entity(meta.entityClass());
+        return type.getId(type.getIdType().getJavaType()).getName();
+    }
+
+    private Sort withIdTieBreaker(SnapResourceMeta meta, Sort sort) {
+        String idName = idProperty(meta);
+        return sort.getOrderFor(idName) != null ? sort : sort.and(Sort.by(idName));
+    }
+
+    private Comparator<Object> comparator(Sort sort) {
+        Comparator<Object> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<Object> next = Comparator.comparing(
+                    entity -> (Comparable<Object>) valueOf(entity, order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return result;
+    }
+
+    private Object valueOf(Object entity, String property) {
+        try {
+            return new DirectFieldAccessor(entity).getPropertyValue(property);
+        } catch (BeansException e) {
+            return null;
+        }
+    }
+
+    private Path<?> resolve(Root<Object> root, String property) {
+        Path<?> path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
+    private Shard openShard(int index, SnapApiProperties.Replica config, Class<?>[] entityClasses,
+                            Map<String, Object> jpaSettings) {
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(config.getUrl())
+                .username(config.getUsername())
+                .password(config.getPassword());
+        if (config.getDriverClassName() != null) {
+            builder.driverClassName(config.getDriverClassName());
+        }
+        HikariDataSource dataSource = builder.build();
+        dataSource.setPoolName("snap-shard-" + index);
+
+        LocalContainerEntityManagerFactoryBean factory = entityManagerFactoryBuilder
+                .dataSource(dataSource)
+                .packages(entityClasses)
+                .persistenceUnit("snap-shard-" + index)
+                .properties(jpaSettings)
+                .build();
+        factory.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factory.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+
+        return new Shard(
+                dataSource,
+                entityManagerFactory,
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                new TransactionTemplate(transactionManager),
+                readTemplate
+        );
+    }
+
+    private record Shard(
+            HikariDataSource dataSource,
+            EntityManagerFactory entityManagerFactory,
+            EntityManager entityManager,
+            TransactionTemplate writeTemplate,
+            TransactionTemplate readTemplate
+    ) {
+    }
+
+    private static class PeekingIterator {
+        private final Iterator<Object> rows;
+        private Object next;
+
+        private PeekingIterator(Iterator<Object> rows) {
+            this.rows = rows;
+            this.next = rows.next();
+        }
+
+        private Object peek() {
+            return next;
+        }
+
+        private boolean hasNext() {
+            return next != null;
+        }
+
+        private Object next() {
+            Object current = next;
+            next = rows.hasNext() ? rows.next() : null;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tivit.snap_api.rest;
+
+import com.tivit.snap_api.aggregate.SnapAggregationService;
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.Endpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("${snap.api.base-path:/api}")
+public class SnapAggregateController {
+    private static final Logger log = LoggerFactory.getLogger(SnapAggregateController.class);
+
+    private final SnapAggregationService aggregationService;
+    private final SnapApiProperties properties;
+
+    public SnapAggregateController(SnapAggregationService aggregationService, SnapApiProperties properties) {
+        this.aggregationService = aggregationService;
+        this.properties = properties;
+    }
+
+    @GetMapping("/{resource}/_aggregate")
+    public ResponseEntity<?> aggregate(@PathVariable String resource, @RequestParam Map<String, String> queryParams) {
+        SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        if (meta == null || !meta.isEndpointEnabled(Endpoint.GET_ALL)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (meta.isPartitioned()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Aggregation is not supported for partitioned resources"));
+        }
+
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(properties.getAggregate().getCacheTtl()).cachePrivate())
+                    .body(aggregationService.aggregate(meta, queryParams));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid aggregation: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error aggregating resource {}: {}", resource, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to execute aggregation: " + e.getMessage()));
+        }
+    }
+}
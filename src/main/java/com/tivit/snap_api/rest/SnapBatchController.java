@@ -0,0 +1,245 @@
+package com.tivit.snap_api.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.dto.BatchRequest;
+import com.tivit.snap_api.dto.BatchResponse;
+import com.tivit.snap_api.routing.SnapReadContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RestController
+@RequestMapping("${snap.api.base-path:/api}")
+public class SnapBatchController {
+    private static final Logger log = LoggerFactory.getLogger(SnapBatchController.class);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final SnapGenericController genericController;
+    private final SnapApiProperties.Batch properties;
+    private final int maxPageSize;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTemplate;
+    private final ExecutorService readExecutor;
+
+    public SnapBatchController(SnapGenericController genericController, SnapApiProperties properties,
+                               ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.genericController = genericController;
+        this.properties = properties.getBatch();
+        this.maxPageSize = properties.getRead().getMaxPageSize();
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.readExecutor = Executors.newFixedThreadPool(this.properties.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "snap-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        readExecutor.shutdownNow();
+    }
+
+    @PostMapping("/_batch")
+    public ResponseEntity<?> batch(@RequestBody BatchRequest request) {
+        List<BatchRequest.Operation> operations = request.operations() == null ? List.of() : request.operations();
+        if (operations.size() > properties.getMaxOperations()) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Batch exceeds the maximum of " + properties.getMaxOperations() + " operations"));
+        }
+
+        if (request.atomic() && operations.stream().anyMatch(this::isPartitioned)) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Atomic batches cannot include partitioned resources"));
+        }
+
+        try {
+            List<BatchResponse.Result> results = request.atomic()
+                    ? executeAtomic(operations)
+                    : executeIndependent(operations);
+            return ResponseEntity.ok(new BatchResponse(results));
+        } catch (Exception e) {
+            log.error("Error executing batch of {} operations: {}", operations.size(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to execute batch: " + e.getMessage()));
+        }
+    }
+
+    private List<BatchResponse.Result> executeAtomic(List<BatchRequest.Operation> operations) {
+        return transactionTemplate.execute(status -> {
+            List<BatchResponse.Result> results = new ArrayList<>(operations.size());
+            for (BatchRequest.Operation operation : operations) {
+                if (status.isRollbackOnly()) {
+                    results.add(new BatchResponse.Result(HttpStatus.FAILED_DEPENDENCY.value(),
+                            Map.of("error", "Not executed, a previous operation failed")));
+                    continue;
+                }
+
+                BatchResponse.Result result = toResult(dispatch(operation));
+                if (result.status() >= 400 && !isRead(operation)) {
+                    status.setRollbackOnly();
+                }
+                results.add(result);
+            }
+            return results;
+        });
+    }
+
+    private List<BatchResponse.Result> executeIndependent(List<BatchRequest.Operation> operations) {
+        BatchResponse.Result[] results = new BatchResponse.Result[operations.size()];
+        List<CompletableFuture<Void>> pendingReads = new ArrayList<>();
+        boolean primaryRequired = SnapReadContext.isPrimaryRequired();
+
+        for (int i = 0; i < operations.size(); i++) {
+            BatchRequest.Operation operation = operations.get(i);
+
+            if (isRead(operation)) {
+                int index = i;
+                boolean readFromPrimary = primaryRequired;
+                pendingReads.add(CompletableFuture.runAsync(() -> {
+                    if (readFromPrimary) {
+                        SnapReadContext.requirePrimary();
+                    }
+                    try {
+                        results[index] = readTemplate.execute(status -> toSerializedResult(dispatch(operation)));
+                    } finally {
+                        SnapReadContext.clear();
+                    }
+                }, readExecutor));
+                continue;
+            }
+
+            CompletableFuture.allOf(pendingReads.toArray(new CompletableFuture[0])).join();
+            pendingReads.clear();
+            results[i] = toResult(dispatch(operation));
+            primaryRequired = true;
+        }
+
+        CompletableFuture.allOf(pendingReads.toArray(new CompletableFuture[0])).join();
+        return Arrays.asList(results);
+    }
+
+    private ResponseEntity<?> dispatch(BatchRequest.Operation operation) {
+        String method = operation.method() == null ? "GET" : operation.method().toUpperCase();
+        if (operation.resource() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Operation resource is required"));
+        }
+
+        Map<String, Object> body = operation.body() == null ? new HashMap<>() : new HashMap<>(operation.body());
+        Map<String, String> query = new HashMap<>();
+        List<String> sorts = new ArrayList<>();
+        if (operation.query() != null) {
+            operation.query().forEach((key, value) -> {
+                if (key.equals("sort")) {
+                    if (value instanceof Collection<?> values) {
+                        values.forEach(sort -> sorts.add(String.valueOf(sort)));
+                    } else if (value != null) {
+                        sorts.add(String.valueOf(value));
+                    }
+                } else if (value != null) {
+                    query.put(key, String.valueOf(value));
+                }
+            });
+        }
+
+        try {
+            return switch (method) {
+                case "GET" -> operation.id() == null
+                        ? genericController.findAll(operation.resource(), query, toPageable(query, sorts))
+                        : genericController.findById(operation.resource(), operation.id());
+                case "POST" -> genericController.create(operation.resource(), body);
+                case "PUT" -> operation.id() == null
+                        ? ResponseEntity.badRequest().body(Map.of("error", "PUT requires an id"))
+                        : genericController.update(operation.resource(), operation.id(), body);
+                case "DELETE" -> operation.id() == null
+                        ? ResponseEntity.badRequest().body(Map.of("error", "DELETE requires an id"))
+                        : genericController.delete(operation.resource(), operation.id());
+                default -> ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                        .body(Map.of("error", "Unsupported method: " + operation.method()));
+            };
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid operation: " + e.getMessage()));
+        }
+    }
+
+    private BatchResponse.Result toResult(ResponseEntity<?> response) {
+        Object body = response.getBody();
+        if (body instanceof byte[] json) {
+            body = new RawValue(new String(json, StandardCharsets.UTF_8));
+        }
+        return new BatchResponse.Result(response.getStatusCode().value(), body);
+    }
+
+    /**
+     * Worker threads have no open-in-view session, so the body is written while the read-only
+     * transaction is still open and lazy associations can load.
+     */
+    private BatchResponse.Result toSerializedResult(ResponseEntity<?> response) {
+        Object body = response.getBody();
+        try {
+            String json = body instanceof byte[] bytes
+                    ? new String(bytes, StandardCharsets.UTF_8)
+                    : objectMapper.writeValueAsString(body);
+            return new BatchResponse.Result(response.getStatusCode().value(), new RawValue(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize batch result: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isPartitioned(BatchRequest.Operation operation) {
+        SnapResourceMeta meta = operation.resource() == null ? null : SnapRegistry.getMetaFor(operation.resource());
+        return meta != null && meta.isPartitioned();
+    }
+
+    private boolean isRead(BatchRequest.Operation operation) {
+        return operation.method() == null || operation.method().equalsIgnoreCase("GET");
+    }
+
+    /**
+     * Sorts follow the query-string convention, "field" or "field,dir", given as a string or as a list
+     * of them for several sort keys.
+     */
+    private Pageable toPageable(Map<String, String> query, List<String> sorts) {
+        int page = query.containsKey("page") ? Integer.parseInt(query.get("page")) : 0;
+        int size = query.containsKey("size") ? Integer.parseInt(query.get("size")) : DEFAULT_PAGE_SIZE;
+        size = Math.max(1, Math.min(size, maxPageSize));
+
+        Sort sort = Sort.unsorted();
+        for (String sortParam : sorts) {
+            if (sortParam.isBlank()) {
+                continue;
+            }
+            String[] parts = sortParam.split(",");
+            Sort.Direction direction = parts.length > 1
+                    ? Sort.Direction.fromOptionalString(parts[1].trim()).orElse(Sort.Direction.ASC)
+                    : Sort.Direction.ASC;
+            sort = sort.and(Sort.by(direction, parts[0].trim()));
+        }
+
+        return PageRequest.of(Math.max(0, page), size, sort);
+    }
+}
@@ -0,0 +1,46 @@
+package com.tivit.snap_api.rest;
+
+import com.tivit.snap_api.changes.SnapChangeFeed;
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.Endpoint;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("${snap.api.base-path:/api}")
+public class SnapChangeFeedController {
+
+    private final SnapChangeFeed changeFeed;
+
+    public SnapChangeFeedController(SnapChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @GetMapping(path = "/{resource}/_changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> changes(
+            @PathVariable String resource,
+            @RequestParam Map<String, String> queryParams,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        if (meta == null || !meta.isEndpointEnabled(Endpoint.GET_ALL)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Long resumeFrom = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeFrom = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        return ResponseEntity.ok(changeFeed.subscribe(meta, queryParams, resumeFrom));
+    }
+}
@@ -1,11 +1,23 @@
 package com.tivit.snap_api.rest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.changes.SnapChangeFeed;
+import com.tivit.snap_api.core.SnapReadExecutor;
 import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapRequestCoalescer;
 import com.tivit.snap_api.core.SnapResourceMeta;
 import com.tivit.snap_api.dto.PageResponse;
+import com.tivit.snap_api.dto.SyncResponse;
+import com.tivit.snap_api.enums.ChangeType;
 import com.tivit.snap_api.enums.Endpoint;
+import com.tivit.snap_api.enums.IngestStatus;
+import com.tivit.snap_api.ingest.SnapIngestQueue;
+import com.tivit.snap_api.partition.KeysetCursor;
+import com.tivit.snap_api.partition.SnapPartitionedStore;
 import com.tivit.snap_api.spec.SnapSpecBuilder;
+import com.tivit.snap_api.sync.SnapSyncService;
+import com.tivit.snap_api.sync.SyncCursor;
+import com.tivit.snap_api.timing.SnapTiming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,14 +25,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
 import org.springframework.data.web.config.EnableSpringDataWebSupport.PageSerializationMode;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 @RestController
 @SuppressWarnings("unchecked")
@@ -28,12 +43,33 @@ import java.util.*;
 @EnableSpringDataWebSupport(pageSerializationMode = PageSerializationMode.VIA_DTO)
 public class SnapGenericController {
     private static final Logger log = LoggerFactory.getLogger(SnapGenericController.class);
+    public static final String CONTINUATION_HEADER = "X-Snap-Continuation";
 
     private final ObjectMapper objectMapper;
+    private final SnapChangeFeed changeFeed;
+    private final SnapSyncService syncService;
+    private final SnapIngestQueue ingestQueue;
+    private final SnapReadExecutor readExecutor;
+    private final SnapRequestCoalescer coalescer;
+    private final SnapPartitionedStore partitionedStore;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTemplate;
 
     @Autowired
-    public SnapGenericController(ObjectMapper objectMapper) {
+    public SnapGenericController(ObjectMapper objectMapper, SnapChangeFeed changeFeed, SnapSyncService syncService,
+                                 SnapIngestQueue ingestQueue, SnapReadExecutor readExecutor,
+                                 SnapRequestCoalescer coalescer, SnapPartitionedStore partitionedStore,
+                                 PlatformTransactionManager transactionManager) {
         this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
+        this.syncService = syncService;
+        this.ingestQueue = ingestQueue;
+        this.readExecutor = readExecutor;
+        this.coalescer = coalescer;
+        this.partitionedStore = partitionedStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
     }
 
     @GetMapping("/{resource}")
@@ -42,23 +78,28 @@ public class SnapGenericController {
             @RequestParam Map<String, String> queryParams,
             Pageable pageable) {
 
+        long began = SnapTiming.begin();
         SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        SnapTiming.end("registry", began);
         if (meta == null || !meta.isEndpointEnabled(Endpoint.GET_ALL)) {
             return ResponseEntity.notFound().build();
         }
 
-        try {
-            JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) meta.repository();
+        if (meta.isSyncEnabled() && (queryParams.containsKey("since") || queryParams.containsKey("continuation"))) {
+            return timed(findChangesSince(meta, queryParams));
+        }
 
-            if (meta.supportsSpecification() && !meta.searchableFields().isEmpty()) {
-                JpaSpecificationExecutor<Object> specRepo = (JpaSpecificationExecutor<Object>) repo;
-                Specification<Object> spec = SnapSpecBuilder.build(meta, queryParams);
-                Page<Object> page = specRepo.findAll(spec, pageable);
-                return ResponseEntity.ok(PageResponse.from(page));
-            } else {
-                Page<Object> page = repo.findAll(pageable);
-                return ResponseEntity.ok(PageResponse.from(page));
+        try {
+            Specification<Object> spec = meta.supportsSpecification() && !meta.searchableFields().isEmpty()
+                    ? SnapSpecBuilder.build(meta, queryParams)
+                    : null;
+            if (meta.isPartitioned()) {
+                return findAllPartitioned(meta, spec, queryParams, pageable);
             }
+            return timed(coalescer.execute(listKey(meta, queryParams, pageable), () -> {
+                Page<Object> page = read(() -> readExecutor.findAll(meta, spec, pageable));
+                return ResponseEntity.ok(PageResponse.from(page));
+            }));
         } catch (Exception e) {
             log.error("Error executing findAll for resource {}: {}", resource, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -66,19 +107,69 @@ public class SnapGenericController {
         }
     }
 
+    private ResponseEntity<?> findAllPartitioned(SnapResourceMeta meta, Specification<Object> spec,
+                                                 Map<String, String> queryParams, Pageable pageable) {
+        String continuation = queryParams.get("continuation");
+        String key = listKey(meta, queryParams, pageable) + "|" + continuation;
+        try {
+            return timed(coalescer.execute(key, () -> {
+                if (continuation != null) {
+                    KeysetCursor cursor = KeysetCursor.decode(continuation, objectMapper);
+                    return ResponseEntity.ok(partitionedStore.findAfter(meta, spec, cursor, pageable.getPageSize()));
+                }
+
+                Page<Object> page = partitionedStore.findAll(meta, spec, pageable);
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                List<Object> content = page.getContent();
+                if (page.hasNext() && !content.isEmpty()) {
+                    response.header(CONTINUATION_HEADER,
+                            partitionedStore.continuationAfter(meta, pageable.getSort(), content.get(content.size() - 1)));
+                }
+                return response.body(PageResponse.from(page));
+            }));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid partitioned query: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> findChangesSince(SnapResourceMeta meta, Map<String, String> queryParams) {
+        try {
+            SyncCursor cursor = SyncCursor.from(queryParams);
+            SyncResponse<Object> changes = read(() -> syncService.isExpired(meta, cursor)
+                    ? null
+                    : syncService.changesSince(meta, queryParams, cursor));
+            if (changes == null) {
+                return ResponseEntity.status(HttpStatus.GONE)
+                        .body(Map.of("error", "Tombstones after this watermark were purged, a full sync is required"));
+            }
+            return ResponseEntity.ok(changes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid sync request: " + e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error executing delta sync for resource {}: {}", meta.path(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to execute sync: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{resource}/{id}")
     public ResponseEntity<?> findById(@PathVariable String resource, @PathVariable String id) {
+        long began = SnapTiming.begin();
         SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        SnapTiming.end("registry", began);
         if (meta == null || !meta.isEndpointEnabled(Endpoint.GET_BY_ID)) {
             return ResponseEntity.notFound().build();
         }
 
         try {
-            JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) meta.repository();
             Object idValue = convertId(id, meta.idClass());
-            Optional<Object> entity = repo.findById(idValue);
-            return entity.map(ResponseEntity::ok)
-                    .orElseGet(() -> ResponseEntity.notFound().build());
+            return timed(coalescer.execute("GET_BY_ID|" + meta.path() + "|" + idValue, () -> {
+                Optional<Object> entity = meta.isPartitioned()
+                        ? partitionedStore.findById(meta, idValue)
+                        : read(() -> readExecutor.findById(meta, idValue));
+                return entity.<ResponseEntity<?>>map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build());
+            }));
         } catch (Exception e) {
             log.error("Error finding resource {} with id {}: {}", resource, id, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -88,16 +179,39 @@ public class SnapGenericController {
 
     @PostMapping("/{resource}")
     public ResponseEntity<?> create(@PathVariable String resource, @RequestBody Map<String, Object> body) {
+        long began = SnapTiming.begin();
         SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        SnapTiming.end("registry", began);
         if (meta == null || !meta.isEndpointEnabled(Endpoint.CREATE)) {
             return ResponseEntity.notFound().build();
         }
 
+        if (meta.asyncIngest() && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return enqueue(meta, body);
+        }
+
         try {
             Object entity = objectMapper.convertValue(body, meta.entityClass());
             JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) meta.repository();
-            Object saved = repo.save(entity);
-            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+            Object saved;
+            if (meta.isPartitioned()) {
+                Optional<Object> created = partitionedStore.create(meta, entity);
+                if (created.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(Map.of("error", "Entity already exists in " + meta.path()));
+                }
+                saved = created.get();
+                changeFeed.publish(meta, ChangeType.CREATED, partitionedStore.idOf(saved), saved);
+            } else {
+                saved = transactionTemplate.execute(status -> {
+                    syncService.stamp(meta, entity);
+                    return repo.save(entity);
+                });
+                changeFeed.publish(meta, ChangeType.CREATED, null, saved);
+            }
+            return timed(ResponseEntity.status(HttpStatus.CREATED).body(saved));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid entity: " + e.getMessage()));
         } catch (Exception e) {
             log.error("Error creating resource {}: {}", resource, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -105,13 +219,32 @@ public class SnapGenericController {
         }
     }
 
+    private ResponseEntity<?> enqueue(SnapResourceMeta meta, Map<String, Object> body) {
+        try {
+            Optional<String> trackingId = ingestQueue.submit(meta, body);
+            if (trackingId.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header("Retry-After", "1")
+                        .body(Map.of("error", "Ingest queue is full or shutting down, retry later"));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("trackingId", trackingId.get(), "status", IngestStatus.PENDING));
+        } catch (Exception e) {
+            log.error("Error enqueuing resource {}: {}", meta.path(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to enqueue entity: " + e.getMessage()));
+        }
+    }
+
     @PutMapping("/{resource}/{id}")
     public ResponseEntity<?> update(
             @PathVariable String resource,
             @PathVariable String id,
             @RequestBody Map<String, Object> body) {
 
+        long began = SnapTiming.begin();
         SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        SnapTiming.end("registry", began);
         if (meta == null || !meta.isEndpointEnabled(Endpoint.EDIT)) {
             return ResponseEntity.notFound().build();
         }
@@ -120,15 +253,33 @@ public class SnapGenericController {
             JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) meta.repository();
             Object idValue = convertId(id, meta.idClass());
 
-            if (!repo.existsById(idValue)) {
-                return ResponseEntity.notFound().build();
+            if (meta.isPartitioned()) {
+                body.put("id", idValue);
+                Optional<Object> updated = partitionedStore.update(meta, idValue,
+                        objectMapper.convertValue(body, meta.entityClass()));
+                if (updated.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                changeFeed.publish(meta, ChangeType.UPDATED, idValue, updated.get());
+                return timed(ResponseEntity.ok(updated.get()));
             }
 
             body.put("id", idValue);
 
             Object entity = objectMapper.convertValue(body, meta.entityClass());
-            Object updated = repo.save(entity);
-            return ResponseEntity.ok(updated);
+            // the existence check runs in the write transaction, so it reads the primary and not a replica
+            Object updated = transactionTemplate.execute(status -> {
+                if (!repo.existsById(idValue)) {
+                    return null;
+                }
+                syncService.stamp(meta, entity);
+                return repo.save(entity);
+            });
+            if (updated == null) {
+                return ResponseEntity.notFound().build();
+            }
+            changeFeed.publish(meta, ChangeType.UPDATED, idValue, updated);
+            return timed(ResponseEntity.ok(updated));
         } catch (Exception e) {
             log.error("Error updating resource {} with id {}: {}", resource, id, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -138,7 +289,9 @@ public class SnapGenericController {
 
     @DeleteMapping("/{resource}/{id}")
     public ResponseEntity<?> delete(@PathVariable String resource, @PathVariable String id) {
+        long began = SnapTiming.begin();
         SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        SnapTiming.end("registry", began);
         if (meta == null || !meta.isEndpointEnabled(Endpoint.DELETE)) {
             return ResponseEntity.notFound().build();
         }
@@ -147,12 +300,29 @@ public class SnapGenericController {
             JpaRepository<Object, Object> repo = (JpaRepository<Object, Object>) meta.repository();
             Object idValue = convertId(id, meta.idClass());
 
-            if (!repo.existsById(idValue)) {
+            if (meta.isPartitioned()) {
+                Optional<Object> deleted = partitionedStore.delete(meta, idValue);
+                if (deleted.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                changeFeed.publish(meta, ChangeType.DELETED, idValue, deleted.get());
+                return timed(ResponseEntity.noContent().build());
+            }
+
+            Optional<Object> existing = transactionTemplate.execute(status -> {
+                Optional<Object> found = repo.findById(idValue);
+                found.ifPresent(entity -> {
+                    repo.delete(entity);
+                    syncService.recordDelete(meta, idValue);
+                });
+                return found;
+            });
+            if (existing.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
-            repo.deleteById(idValue);
-            return ResponseEntity.noContent().build();
+            changeFeed.publish(meta, ChangeType.DELETED, idValue, existing.get());
+            return timed(ResponseEntity.noContent().build());
         } catch (Exception e) {
             log.error("Error deleting resource {} with id {}: {}", resource, id, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -160,6 +330,44 @@ public class SnapGenericController {
         }
     }
 
+    /**
+     * A read of its own runs in a read-only transaction. Inside a caller's transaction, an atomic
+     * batch, it runs directly in it: a participating template that fails marks the whole transaction
+     * rollback-only, and a failed read must not undo the batch's writes.
+     */
+    private <T> T read(Supplier<T> read) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return read.get();
+        }
+        return readTemplate.execute(status -> read.get());
+    }
+
+    private ResponseEntity<?> timed(ResponseEntity<?> response) {
+        SnapTiming timing = SnapTiming.current();
+        if (timing == null) {
+            return response;
+        }
+
+        ResponseEntity<?> serialized = coalescer.serialize(response);
+        if (!timing.isExposed()) {
+            return serialized;
+        }
+        return ResponseEntity.status(serialized.getStatusCode())
+                .headers(serialized.getHeaders())
+                .header(SnapTiming.HEADER, timing.toHeader())
+                .body(serialized.getBody());
+    }
+
+    private String listKey(SnapResourceMeta meta, Map<String, String> queryParams, Pageable pageable) {
+        Map<String, String> filters = new TreeMap<>();
+        queryParams.forEach((key, value) -> {
+            if (!SnapSpecBuilder.isReservedParam(key)) {
+                filters.put(key, value);
+            }
+        });
+        return "GET_ALL|" + meta.path() + "|" + filters + "|" + pageable;
+    }
+
     private Object convertId(String id, Class<?> idClass) {
         if (idClass == Long.class || idClass == long.class) {
             return Long.valueOf(id);
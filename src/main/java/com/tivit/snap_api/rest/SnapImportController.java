@@ -0,0 +1,229 @@
+package com.tivit.snap_api.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.Endpoint;
+import com.tivit.snap_api.enums.ImportStatus;
+import com.tivit.snap_api.ingest.*;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("${snap.api.base-path:/api}")
+public class SnapImportController {
+    private static final Logger log = LoggerFactory.getLogger(SnapImportController.class);
+    public static final String IMPORT_ID_HEADER = "X-Snap-Import-Id";
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final SnapImportService importService;
+    private final ObjectMapper objectMapper;
+    private final SnapApiProperties.Import properties;
+
+    public SnapImportController(SnapImportService importService, ObjectMapper objectMapper,
+                                SnapApiProperties properties) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+        this.properties = properties.getImports();
+    }
+
+    /**
+     * The import id can be chosen by the client (importId parameter or X-Snap-Import-Id header), so it
+     * can poll the import while the upload is running and resume it if the connection drops.
+     */
+    @PostMapping("/{resource}/_import")
+    public ResponseEntity<?> importRecords(
+            @PathVariable String resource,
+            @RequestParam(required = false) String file,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String importId,
+            @RequestHeader(name = IMPORT_ID_HEADER, required = false) String importIdHeader,
+            HttpServletRequest request) {
+
+        SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        if (meta == null || !meta.isEndpointEnabled(Endpoint.CREATE)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (meta.isPartitioned()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Bulk import is not supported for partitioned resources"));
+        }
+
+        String id = importId != null ? importId : importIdHeader;
+        if (id != null && !IMPORT_ID.matcher(id).matches()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "importId must match " + IMPORT_ID.pattern()));
+        }
+
+        String resolvedFormat = resolveFormat(format, file, request.getContentType());
+        if (resolvedFormat == null) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(Map.of("error", "Import format must be ndjson or csv"));
+        }
+
+        try {
+            ImportReport report = file != null
+                    ? importFile(meta, file, resolvedFormat, id)
+                    : importBody(meta, request, resolvedFormat, id);
+            return report.status() == ImportStatus.COMPLETED
+                    ? ResponseEntity.ok(report)
+                    : ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(report);
+        } catch (ImportRejectedException e) {
+            return ResponseEntity.status(e.status).body(Map.of("error", e.getMessage()));
+        } catch (RecordTooLargeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            log.error("Error opening import for resource {}: {}", resource, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to open import: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{resource}/_import/{importId}")
+    public ResponseEntity<?> status(@PathVariable String resource, @PathVariable String importId) {
+        SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        if (meta == null || !meta.isEndpointEnabled(Endpoint.CREATE)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (!IMPORT_ID.matcher(importId).matches()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Optional<ImportReport> report = importService.status(importId);
+        if (report.isEmpty()) {
+            // still RUNNING here means the import was cut off when the node stopped
+            report = importService.checkpoint(importId)
+                    .map(checkpoint -> checkpoint.status() != ImportStatus.RUNNING ? checkpoint
+                            : new ImportReport(checkpoint.importId(), checkpoint.resource(), ImportStatus.FAILED,
+                                    checkpoint.checkpoint(), checkpoint.imported(), checkpoint.failed(),
+                                    "Interrupted, resend it with this importId to resume", checkpoint.errors()));
+        }
+
+        return report.filter(found -> found.resource().equals(meta.path()))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * The client resends the whole body to resume: the records before the checkpoint are read and
+     * skipped, then the import continues with the same counters. Resending a completed import
+     * answers its report without reading the body again.
+     */
+    private ImportReport importBody(SnapResourceMeta meta, HttpServletRequest request, String format,
+                                    String importId) throws IOException {
+        Optional<ImportReport> previous = importId == null ? Optional.empty() : importService.checkpoint(importId);
+        if (previous.isPresent() && !previous.get().resource().equals(meta.path())) {
+            throw new ImportRejectedException(HttpStatus.CONFLICT,
+                    "Import " + importId + " belongs to " + previous.get().resource());
+        }
+        if (previous.isPresent() && previous.get().status() == ImportStatus.COMPLETED) {
+            return previous.get();
+        }
+
+        Reader reader = new InputStreamReader(request.getInputStream(), charsetOf(request.getContentType()));
+        String id = importId != null ? importId : UUID.randomUUID().toString();
+        return importService.run(meta, readerFor(format, reader), id, previous.orElse(null), null);
+    }
+
+    private ImportReport importFile(SnapResourceMeta meta, String file, String format,
+                                    String importId) throws IOException {
+        if (properties.getAllowedDirectory() == null || properties.getAllowedDirectory().isBlank()) {
+            throw new ImportRejectedException(HttpStatus.FORBIDDEN, "File imports are disabled");
+        }
+
+        Path path;
+        try {
+            Path allowed = Path.of(properties.getAllowedDirectory()).toRealPath();
+            path = allowed.resolve(file).toRealPath();
+            if (!path.startsWith(allowed) || !Files.isRegularFile(path)) {
+                throw new ImportRejectedException(HttpStatus.FORBIDDEN, "File is outside the allowed import directory");
+            }
+        } catch (NoSuchFileException e) {
+            throw new ImportRejectedException(HttpStatus.NOT_FOUND, "File not found: " + file);
+        }
+
+        String source = path.toString();
+        Optional<ImportReport> checkpoint = importService.interruptedImportOf(source);
+        if (checkpoint.isPresent() && !checkpoint.get().importId().equals(importId)) {
+            throw new ImportRejectedException(HttpStatus.CONFLICT, "File has an interrupted import, pass importId="
+                    + checkpoint.get().importId() + " to resume it");
+        }
+        if (checkpoint.isEmpty() && importId != null) {
+            Optional<ImportReport> completed = importService.checkpoint(importId)
+                    .filter(report -> report.status() == ImportStatus.COMPLETED && report.resource().equals(meta.path()));
+            if (completed.isPresent()) {
+                return completed.get();
+            }
+            throw new ImportRejectedException(HttpStatus.NOT_FOUND, "No checkpoint found for import " + importId);
+        }
+
+        InputStream input = Files.newInputStream(path);
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        String id = checkpoint.map(ImportReport::importId).orElse(UUID.randomUUID().toString());
+        return importService.run(meta, readerFor(format, reader), id, checkpoint.orElse(null), source);
+    }
+
+    /**
+     * Taken from the Content-Type header: the request's character encoding is forced to UTF-8 by
+     * the servlet encoding filter and does not tell what the client sent.
+     */
+    private Charset charsetOf(String contentType) {
+        try {
+            Charset charset = contentType == null ? null : MediaType.parseMediaType(contentType).getCharset();
+            return charset != null ? charset : StandardCharsets.UTF_8;
+        } catch (InvalidMediaTypeException e) {
+            throw new ImportRejectedException(HttpStatus.BAD_REQUEST, "Invalid Content-Type: " + e.getMessage());
+        }
+    }
+
+    private SnapRecordReader readerFor(String format, Reader reader) {
+        int maxRecordLength = (int) Math.min(properties.getMaxRecordSize().toBytes(), Integer.MAX_VALUE);
+        return format.equals("csv")
+                ? new CsvRecordReader(reader, maxRecordLength)
+                : new NdjsonRecordReader(reader, objectMapper, maxRecordLength);
+    }
+
+    private String resolveFormat(String format, String file, String contentType) {
+        String hint = format != null ? format : file != null ? file : contentType != null ? contentType : "";
+        hint = hint.toLowerCase();
+        if (hint.contains("ndjson") || hint.contains("jsonl")) {
+            return "ndjson";
+        }
+        if (hint.contains("csv")) {
+            return "csv";
+        }
+        return null;
+    }
+
+    private static class ImportRejectedException extends RuntimeException {
+        private final HttpStatus status;
+
+        private ImportRejectedException(HttpStatus status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
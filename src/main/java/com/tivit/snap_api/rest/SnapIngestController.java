@@ -0,0 +1,31 @@
+package com.tivit.snap_api.rest;
+
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.enums.Endpoint;
+import com.tivit.snap_api.ingest.SnapIngestQueue;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("${snap.api.base-path:/api}")
+public class SnapIngestController {
+
+    private final SnapIngestQueue ingestQueue;
+
+    public SnapIngestController(SnapIngestQueue ingestQueue) {
+        this.ingestQueue = ingestQueue;
+    }
+
+    @GetMapping("/{resource}/_ingest/{trackingId}")
+    public ResponseEntity<?> status(@PathVariable String resource, @PathVariable String trackingId) {
+        SnapResourceMeta meta = SnapRegistry.getMetaFor(resource);
+        if (meta == null || !meta.asyncIngest() || !meta.isEndpointEnabled(Endpoint.CREATE)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ingestQueue.status(trackingId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,58 @@
+package com.tivit.snap_api.routing;
+
+import com.tivit.snap_api.config.SnapApiProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+@Component
+public class SnapConsistencyInterceptor implements AsyncHandlerInterceptor {
+    public static final String CONSISTENCY_HEADER = "X-Snap-Consistency";
+    public static final String WRITE_TOKEN_HEADER = "X-Snap-Write-Token";
+
+    private final SnapApiProperties properties;
+
+    public SnapConsistencyInterceptor(SnapApiProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            response.setHeader(WRITE_TOKEN_HEADER, String.valueOf(System.currentTimeMillis()));
+            return true;
+        }
+
+        if ("strong".equalsIgnoreCase(request.getHeader(CONSISTENCY_HEADER))
+                || isRecentWrite(request.getHeader(WRITE_TOKEN_HEADER))) {
+            SnapReadContext.requirePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SnapReadContext.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        SnapReadContext.clear();
+    }
+
+    private boolean isRecentWrite(String token) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+        try {
+            long writtenAt = Long.parseLong(token.trim());
+            return System.currentTimeMillis() - writtenAt < properties.getDatasource().getMaxReplicaLag().toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tivit.snap_api.routing;
+
+public final class SnapReadContext {
+    private static final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    private SnapReadContext() {
+    }
+
+    public static void requirePrimary() {
+        primaryRequired.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(primaryRequired.get());
+    }
+
+    public static void clear() {
+        primaryRequired.remove();
+    }
+}
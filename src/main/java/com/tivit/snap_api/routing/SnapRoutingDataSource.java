@@ -0,0 +1,39 @@
+package com.tivit.snap_api.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SnapRoutingDataSource extends AbstractRoutingDataSource {
+    private static final String PRIMARY = "primary";
+
+    private final int replicaCount;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public SnapRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put("replica-" + i, replicas.get(i));
+        }
+
+        this.replicaCount = replicas.size();
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaCount == 0
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || SnapReadContext.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        return "replica-" + Math.floorMod(next.getAndIncrement(), replicaCount);
+    }
+}
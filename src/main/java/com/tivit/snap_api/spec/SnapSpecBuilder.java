@@ -1,11 +1,13 @@
 package com.tivit.snap_api.spec;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.tivit.snap_api.core.SnapResourceMeta;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -13,9 +15,11 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("unchecked")
 public class SnapSpecBuilder {
+    private static final Map<String, Class<?>> fieldTypes = new ConcurrentHashMap<>();
 
     public static <T> Specification<T> build(SnapResourceMeta meta, Map<String, String> params) {
         return (root, query, cb) -> {
@@ -25,7 +29,7 @@ public class SnapSpecBuilder {
                 String key = entry.getKey();
                 String value = entry.getValue();
 
-                if (key.equals("page") || key.equals("size") || key.equals("sort")) {
+                if (isReservedParam(key)) {
                     continue;
                 }
 
@@ -56,6 +60,109 @@ public class SnapSpecBuilder {
         };
     }
 
+    public static boolean matches(SnapResourceMeta meta, Map<String, String> params, JsonNode node) {
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+
+            if (isReservedParam(key)) {
+                continue;
+            }
+
+            String fieldName = key;
+            String operator = null;
+            if (key.contains("_")) {
+                String[] parts = key.split("_", 2);
+                fieldName = parts[0];
+                operator = parts[1].toLowerCase();
+            }
+
+            if (!meta.searchableFields().contains(fieldName)) {
+                continue;
+            }
+
+            Class<?> fieldType = getFieldType(meta.entityClass(), fieldName);
+            if (operator == null) {
+                operator = String.class.isAssignableFrom(fieldType) ? "like" : "eq";
+            }
+
+            JsonNode valueNode = node;
+            for (String part : fieldName.split("\\.")) {
+                valueNode = valueNode == null ? null : valueNode.get(part);
+            }
+            String actual = valueNode == null || valueNode.isNull() ? null : valueNode.asText();
+
+            if (!matchesValue(actual, operator, value, fieldType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isReservedParam(String key) {
+        return key.equals("page") || key.equals("size") || key.equals("sort")
+                || key.equals("since") || key.equals("continuation");
+    }
+
+    private static boolean matchesValue(String actual, String operator, String value, Class<?> fieldType) {
+        if (operator.equals("isnull")) {
+            return value.equalsIgnoreCase("true") == (actual == null);
+        }
+
+        if (operator.equals("like") && String.class.isAssignableFrom(fieldType)) {
+            return actual != null && actual.toLowerCase().contains(value.toLowerCase());
+        }
+
+        Object expected = convertValue(value, fieldType);
+        Object current = convertValue(actual, fieldType);
+        boolean comparable = expected instanceof Number || expected instanceof LocalDate
+                || expected instanceof LocalDateTime;
+
+        return switch (operator) {
+            case "neq" -> !valueEquals(current, expected);
+            case "gt" -> comparable ? current != null && compare(current, expected) > 0 : valueEquals(current, expected);
+            case "lt" -> comparable ? current != null && compare(current, expected) < 0 : valueEquals(current, expected);
+            case "gte" -> comparable ? current != null && compare(current, expected) >= 0 : valueEquals(current, expected);
+            case "lte" -> comparable ? current != null && compare(current, expected) <= 0 : valueEquals(current, expected);
+            default -> valueEquals(current, expected);
+        };
+    }
+
+    private static boolean valueEquals(Object current, Object expected) {
+        if (expected == null || current == null) {
+            return expected == current;
+        }
+        if (expected instanceof Comparable<?>) {
+            return compare(current, expected) == 0;
+        }
+        return expected.equals(current);
+    }
+
+    private static int compare(Object current, Object expected) {
+        return ((Comparable<Object>) current).compareTo(expected);
+    }
+
+    private static Class<?> getFieldType(Class<?> entityClass, String fieldPath) {
+        return fieldTypes.computeIfAbsent(entityClass.getName() + "#" + fieldPath, key -> {
+            Class<?> currentClass = entityClass;
+            for (String part : fieldPath.split("\\.")) {
+                currentClass = findField(currentClass, part).getType();
+            }
+            return currentClass;
+        });
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+                // keep walking up the hierarchy
+            }
+        }
+        throw new IllegalStateException("Campo '" + name + "' não encontrado em " + type.getSimpleName());
+    }
+
     private static <T> Predicate createPredicate(Root<T> root, jakarta.persistence.criteria.CriteriaBuilder cb,
                                                  String fieldName, String operator, String value) {
         Path<?> path = getPath(root, fieldName);
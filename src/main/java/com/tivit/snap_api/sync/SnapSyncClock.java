@@ -0,0 +1,22 @@
+package com.tivit.snap_api.sync;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "snap_sync_clock")
+public class SnapSyncClock {
+
+    @Id
+    private String resource;
+
+    private Long watermark;
+
+    /**
+     * Highest watermark whose tombstones were purged; a client behind it may have missed a delete.
+     */
+    private Long purgedWatermark;
+}
@@ -0,0 +1,25 @@
+package com.tivit.snap_api.sync;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SnapSyncClockRepository extends JpaRepository<SnapSyncClock, String> {
+
+    @Modifying
+    @Query("update SnapSyncClock c set c.watermark = case when c.watermark + 1 > :now then c.watermark + 1 else :now end"
+            + " where c.resource = :resource")
+    int advance(@Param("resource") String resource, @Param("now") Long now);
+
+    @Query("select c.watermark from SnapSyncClock c where c.resource = :resource")
+    Long current(@Param("resource") String resource);
+
+    @Modifying
+    @Query("update SnapSyncClock c set c.purgedWatermark = :watermark"
+            + " where c.resource = :resource and (c.purgedWatermark is null or c.purgedWatermark < :watermark)")
+    int markPurged(@Param("resource") String resource, @Param("watermark") Long watermark);
+
+    @Query("select c.purgedWatermark from SnapSyncClock c where c.resource = :resource")
+    Long purgedWatermark(@Param("resource") String resource);
+}
@@ -0,0 +1,321 @@
+package com.tivit.snap_api.sync;
+
+import com.tivit.snap_api.config.SnapApiProperties;
+import com.tivit.snap_api.core.SnapRegistry;
+import com.tivit.snap_api.core.SnapResourceMeta;
+import com.tivit.snap_api.dto.SyncResponse;
+import com.tivit.snap_api.spec.SnapSpecBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@DependsOn("snapInitializer")
+@SuppressWarnings("unchecked")
+public class SnapSyncService {
+    private static final Logger log = LoggerFactory.getLogger(SnapSyncService.class);
+    private static final String WATERMARK_RESOURCE = SnapSyncService.class.getName() + ".watermark:";
+
+    private final SnapTombstoneRepository tombstoneRepository;
+    private final SnapSyncClockRepository clockRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final SnapApiProperties properties;
+    private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snap-sync-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SnapSyncService(SnapTombstoneRepository tombstoneRepository, SnapSyncClockRepository clockRepository,
+                           EntityManager entityManager, PlatformTransactionManager transactionManager,
+                           SnapApiProperties properties) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.clockRepository = clockRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (SnapResourceMeta meta : SnapRegistry.getAll()) {
+            if (meta.isSyncEnabled()) {
+                createClock(meta);
+                transactionTemplate.executeWithoutResult(status -> backfill(meta));
+            }
+        }
+
+        long interval = properties.getSync().getPurgeInterval().toMillis();
+        purger.scheduleAtFixedRate(this::purgeTombstones, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        purger.shutdownNow();
+    }
+
+    public void stamp(SnapResourceMeta meta, Object entity) {
+        if (meta.isSyncEnabled()) {
+            PropertyAccessorFactory.forDirectFieldAccess(entity)
+                    .setPropertyValue(meta.syncField(), nextWatermark(meta));
+        }
+    }
+
+    public void recordDelete(SnapResourceMeta meta, Object id) {
+        if (!meta.isSyncEnabled()) {
+            return;
+        }
+
+        SnapTombstone tombstone = new SnapTombstone();
+        tombstone.setResource(meta.path());
+        tombstone.setEntityId(String.valueOf(id));
+        tombstone.setWatermark(nextWatermark(meta));
+        tombstoneRepository.save(tombstone);
+    }
+
+    /**
+     * Last committed watermark of the resource. Every instance writes the same clock row, so it also
+     * moves when another node commits.
+     */
+    public long currentWatermark(SnapResourceMeta meta) {
+        Long watermark = clockRepository.current(meta.path());
+        return watermark != null ? watermark : 0;
+    }
+
+    /**
+     * A cursor is expired once tombstones it has not seen were purged. A full sync (since=0) never is.
+     */
+    public boolean isExpired(SnapResourceMeta meta, SyncCursor cursor) {
+        if (cursor.watermark() == 0) {
+            return false;
+        }
+        Long purged = clockRepository.purgedWatermark(meta.path());
+        if (purged == null) {
+            return false;
+        }
+        return cursor.watermark() < purged || (cursor.watermark() == purged && !cursor.isComplete());
+    }
+
+    public SyncResponse<Object> changesSince(SnapResourceMeta meta, Map<String, String> params, SyncCursor cursor) {
+        int size = resolveSize(params.get("size"));
+        String idProperty = idProperty(meta);
+
+        Specification<Object> spec = rowsAfter(meta, idProperty, cursor).and(SnapSpecBuilder.build(meta, params));
+        List<Object> rows = findRows(meta, spec, Sort.by(meta.syncField(), idProperty), size + 1);
+
+        // tombstones of the cursor's watermark come after its rows
+        long afterTombstone = cursor.tombstoneId() != null ? cursor.tombstoneId()
+                : cursor.rowId() != null ? Long.MIN_VALUE : Long.MAX_VALUE;
+        List<SnapTombstone> tombstones = tombstoneRepository.findAfter(
+                meta.path(), cursor.watermark(), afterTombstone, PageRequest.of(0, size + 1));
+
+        List<Entry> merged = new ArrayList<>(rows.size() + tombstones.size());
+        for (Object row : rows) {
+            Long watermark = (Long) PropertyAccessorFactory.forDirectFieldAccess(row)
+                    .getPropertyValue(meta.syncField());
+            merged.add(new Entry(watermark != null ? watermark : 0L, row, null));
+        }
+        for (SnapTombstone tombstone : tombstones) {
+            merged.add(new Entry(tombstone.getWatermark(), null, tombstone));
+        }
+        merged.sort(Comparator.comparingLong(Entry::watermark).thenComparing(entry -> entry.tombstone() != null));
+        List<Entry> page = merged.subList(0, Math.min(size, merged.size()));
+
+        List<Object> changes = new ArrayList<>();
+        List<SyncResponse.Deleted> deleted = new ArrayList<>();
+        for (Entry entry : page) {
+            if (entry.tombstone() != null) {
+                deleted.add(new SyncResponse.Deleted(entry.tombstone().getEntityId(), entry.watermark()));
+            } else {
+                changes.add(entry.entity());
+            }
+        }
+
+        SyncCursor next = cursor;
+        if (!page.isEmpty()) {
+            Entry last = page.get(page.size() - 1);
+            next = last.tombstone() != null
+                    ? new SyncCursor(last.watermark(), null, last.tombstone().getId())
+                    : new SyncCursor(last.watermark(), String.valueOf(PropertyAccessorFactory
+                    .forDirectFieldAccess(last.entity()).getPropertyValue(idProperty)), null);
+        }
+
+        return new SyncResponse<>(changes, deleted, next.watermark(), next.encode(), merged.size() > size);
+    }
+
+    private Specification<Object> rowsAfter(SnapResourceMeta meta, String idProperty, SyncCursor cursor) {
+        return (root, query, cb) -> {
+            Predicate later = cb.greaterThan(root.<Long>get(meta.syncField()), cursor.watermark());
+            if (cursor.rowId() == null) {
+                return later;
+            }
+            Comparable<Object> rowId = (Comparable<Object>) DefaultConversionService.getSharedInstance()
+                    .convert(cursor.rowId(), meta.idClass());
+            return cb.or(later, cb.and(
+                    cb.equal(root.get(meta.syncField()), cursor.watermark()),
+                    cb.greaterThan(root.get(idProperty), rowId)));
+        };
+    }
+
+    /**
+     * Watermarks come from the resource's row in snap_sync_clock. The update keeps that row locked until
+     * the writer commits, so the next watermark is only handed out once this one is visible and a
+     * client can never sync past a row that commits late. Writes in one transaction share a watermark.
+     */
+    private long nextWatermark(SnapResourceMeta meta) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Watermark de " + meta.path() + " exige uma transação ativa");
+        }
+
+        String key = WATERMARK_RESOURCE + meta.path();
+        Long current = (Long) TransactionSynchronizationManager.getResource(key);
+        if (current != null) {
+            return current;
+        }
+
+        if (clockRepository.advance(meta.path(), System.currentTimeMillis()) == 0) {
+            throw new IllegalStateException("Relógio de sync não inicializado para " + meta.path());
+        }
+        long watermark = clockRepository.current(meta.path());
+        TransactionSynchronizationManager.bindResource(key, watermark);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            }
+        });
+        return watermark;
+    }
+
+    private void createClock(SnapResourceMeta meta) {
+        if (clockRepository.existsById(meta.path())) {
+            return;
+        }
+
+        Long maxRow = findMaxWatermark(meta);
+        Long maxTombstone = tombstoneRepository.findMaxWatermark(meta.path());
+        SnapSyncClock clock = new SnapSyncClock();
+        clock.setResource(meta.path());
+        clock.setWatermark(Math.max(maxRow != null ? maxRow : 0L, maxTombstone != null ? maxTombstone : 0L));
+        try {
+            transactionTemplate.executeWithoutResult(status -> clockRepository.saveAndFlush(clock));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Sync clock for {} was created by another instance", meta.path());
+        }
+    }
+
+    /**
+     * Rows written before sync was enabled, or outside the API, have no watermark and would never be
+     * returned by since=0.
+     */
+    private void backfill(SnapResourceMeta meta) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> pending = cb.createQuery(Long.class);
+        Root<?> pendingRoot = pending.from(meta.entityClass());
+        pending.select(cb.count(pendingRoot)).where(cb.isNull(pendingRoot.get(meta.syncField())));
+        if (entityManager.createQuery(pending).getSingleResult() == 0) {
+            return;
+        }
+
+        CriteriaUpdate<Object> update = cb.createCriteriaUpdate((Class<Object>) meta.entityClass());
+        Root<Object> root = update.from((Class<Object>) meta.entityClass());
+        update.set(root.<Long>get(meta.syncField()), nextWatermark(meta))
+                .where(cb.isNull(root.get(meta.syncField())));
+        int updated = entityManager.createQuery(update).executeUpdate();
+        log.info("Backfilled the sync watermark of {} {} rows", updated, meta.path());
+    }
+
+    /**
+     * Queried on the entity manager and not through the repository, whose transactional proxy would
+     * mark an atomic batch rollback-only when the read fails.
+     */
+    private List<Object> findRows(SnapResourceMeta meta, Specification<Object> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery((Class<Object>) meta.entityClass());
+        Root<Object> root = query.from((Class<Object>) meta.entityClass());
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private Long findMaxWatermark(SnapResourceMeta meta) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<?> root = query.from(meta.entityClass());
+        query.select(cb.max(root.<Long>get(meta.syncField())));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private String idProperty(SnapResourceMeta meta) {
+        EntityType<?> type = entityManager.getMetamodel().entity(meta.entityClass());
+        return type.getId(type.getIdType().getJavaType()).getName();
+    }
+
+    /**
+     * Purges per resource and records the highest purged watermark in its clock row, in the same
+     * transaction, so isExpired only rejects cursors that could have missed a delete.
+     */
+    private void purgeTombstones() {
+        long oldest = System.currentTimeMillis() - properties.getSync().getTombstoneRetention().toMillis();
+        for (SnapResourceMeta meta : SnapRegistry.getAll()) {
+            if (!meta.isSyncEnabled()) {
+                continue;
+            }
+            try {
+                Integer purged = transactionTemplate.execute(status -> {
+                    Long upTo = tombstoneRepository.findMaxWatermarkBefore(meta.path(), oldest);
+                    if (upTo == null) {
+                        return 0;
+                    }
+                    clockRepository.markPurged(meta.path(), upTo);
+                    return tombstoneRepository.purgeUpTo(meta.path(), upTo);
+                });
+                if (purged != null && purged > 0) {
+                    log.info("Purged {} sync tombstones of {} older than watermark {}", purged, meta.path(), oldest);
+                }
+            } catch (Exception e) {
+                log.error("Error purging sync tombstones of {}: {}", meta.path(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private int resolveSize(String size) {
+        if (size == null) {
+            return properties.getSync().getDefaultSize();
+        }
+        return Math.max(1, Math.min(Integer.parseInt(size), properties.getSync().getMaxSize()));
+    }
+
+    private record Entry(long watermark, Object entity, SnapTombstone tombstone) {
+    }
+}
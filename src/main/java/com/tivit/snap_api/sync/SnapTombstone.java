@@ -0,0 +1,20 @@
+package com.tivit.snap_api.sync;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "snap_tombstone", indexes = @Index(columnList = "resource, watermark, id"))
+public class SnapTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String resource;
+
+    private String entityId;
+
+    private Long watermark;
+}
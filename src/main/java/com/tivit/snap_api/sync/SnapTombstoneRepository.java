@@ -0,0 +1,28 @@
+package com.tivit.snap_api.sync;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SnapTombstoneRepository extends JpaRepository<SnapTombstone, Long> {
+
+    @Query("select t from SnapTombstone t where t.resource = :resource"
+            + " and (t.watermark > :watermark or (t.watermark = :watermark and t.id > :afterId))"
+            + " order by t.watermark, t.id")
+    List<SnapTombstone> findAfter(@Param("resource") String resource, @Param("watermark") Long watermark,
+                                  @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select max(t.watermark) from SnapTombstone t where t.resource = :resource")
+    Long findMaxWatermark(@Param("resource") String resource);
+
+    @Query("select max(t.watermark) from SnapTombstone t where t.resource = :resource and t.watermark < :watermark")
+    Long findMaxWatermarkBefore(@Param("resource") String resource, @Param("watermark") Long watermark);
+
+    @Modifying
+    @Query("delete from SnapTombstone t where t.resource = :resource and t.watermark <= :watermark")
+    int purgeUpTo(@Param("resource") String resource, @Param("watermark") Long watermark);
+}
@@ -0,0 +1,49 @@
+package com.tivit.snap_api.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Keyset position in the change stream, ordered by (watermark, rows by entity id, tombstones by id).
+ * With neither id set, everything up to and including the watermark was returned. With rowId, only the
+ * rows of the watermark up to that id; with tombstoneId, all its rows and the tombstones up to that id.
+ */
+public record SyncCursor(long watermark, String rowId, Long tombstoneId) {
+
+    public static SyncCursor from(Map<String, String> params) {
+        String continuation = params.get("continuation");
+        if (continuation != null) {
+            return decode(continuation);
+        }
+        return new SyncCursor(Long.parseLong(params.get("since")), null, null);
+    }
+
+    public static SyncCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 3);
+            long watermark = Long.parseLong(parts[0]);
+            if (parts.length == 1) {
+                return new SyncCursor(watermark, null, null);
+            }
+            return switch (parts[1]) {
+                case "r" -> new SyncCursor(watermark, parts[2], null);
+                case "t" -> new SyncCursor(watermark, null, Long.parseLong(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown cursor position " + parts[1]);
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+        }
+    }
+
+    public boolean isComplete() {
+        return rowId == null && tombstoneId == null;
+    }
+
+    public String encode() {
+        String position = rowId != null ? ":r:" + rowId : tombstoneId != null ? ":t:" + tombstoneId : "";
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((watermark + position).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -5,10 +5,14 @@ import com.tivit.snap_api.enums.Endpoint;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @SnapResource(
         path = "/produtos",
         expose = {Endpoint.GET_ALL, Endpoint.CREATE, Endpoint.GET_BY_ID, Endpoint.EDIT},
-        searchableFields = {"nome", "categoria.nome"}
+        searchableFields = {"nome", "categoria.nome"},
+        aggregatableFields = {"preco"},
+        syncField = "atualizadoEm"
 )
 @Entity
 @Data
@@ -20,9 +24,13 @@ public class Produto {
 
     private String nome;
 
+    private BigDecimal preco;
+
     @Embedded
     @AttributeOverrides({
             @AttributeOverride(name = "nome", column = @Column(name = "categoria_nome"))
     })
     private Categoria categoria;
+
+    private Long atualizadoEm;
 }
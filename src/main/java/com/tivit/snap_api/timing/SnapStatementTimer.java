@@ -0,0 +1,15 @@
+package com.tivit.snap_api.timing;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Registered on every Hibernate session through hibernate.session.events.auto, so a timed read can
+ * tell the time until the SELECT returned apart from the time spent hydrating its rows.
+ */
+public class SnapStatementTimer implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SnapTiming.statementExecuted();
+    }
+}
@@ -0,0 +1,84 @@
+package com.tivit.snap_api.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Per-request phase timer. Only bound to the thread when the request asked for timing,
+ * so {@link #begin()} and {@link #end(String, long)} are a ThreadLocal read otherwise.
+ */
+public final class SnapTiming {
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<SnapTiming> current = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final boolean exposed;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private long statementEndedAt = startedAt;
+
+    private SnapTiming(boolean exposed) {
+        this.exposed = exposed;
+    }
+
+    public static void start(boolean exposed) {
+        current.set(new SnapTiming(exposed));
+    }
+
+    public static SnapTiming current() {
+        return current.get();
+    }
+
+    public static void clear() {
+        current.remove();
+    }
+
+    public static long begin() {
+        return current.get() == null ? 0 : System.nanoTime();
+    }
+
+    public static void end(String phase, long began) {
+        SnapTiming timing = current.get();
+        if (timing != null) {
+            timing.phases.merge(phase, System.nanoTime() - began, Long::sum);
+        }
+    }
+
+    /**
+     * Ends a read, reporting the time until its last JDBC statement returned (see
+     * {@link SnapStatementTimer}) as select and the time spent reading rows into entities after it as
+     * hydrate. A read served without a statement is all hydrate.
+     */
+    public static void endRead(long began) {
+        SnapTiming timing = current.get();
+        if (timing != null) {
+            long selected = Math.max(timing.statementEndedAt, began);
+            timing.phases.merge("select", selected - began, Long::sum);
+            timing.phases.merge("hydrate", System.nanoTime() - selected, Long::sum);
+        }
+    }
+
+    static void statementExecuted() {
+        SnapTiming timing = current.get();
+        if (timing != null) {
+            timing.statementEndedAt = System.nanoTime();
+        }
+    }
+
+    public boolean isExposed() {
+        return exposed;
+    }
+
+    public String toHeader() {
+        StringJoiner header = new StringJoiner(", ");
+        phases.forEach((phase, nanos) -> header.add(phase + ";dur=" + millis(nanos)));
+        header.add("total;dur=" + millis(System.nanoTime() - startedAt));
+        return header.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,62 @@
+package com.tivit.snap_api.timing;
+
+import com.tivit.snap_api.config.SnapApiProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class SnapTimingInterceptor implements AsyncHandlerInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(SnapTimingInterceptor.class);
+    public static final String TIMING_HEADER = "X-Snap-Timing";
+
+    private final SnapApiProperties.Timing properties;
+
+    public SnapTimingInterceptor(SnapApiProperties properties) {
+        this.properties = properties.getTiming();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isPrivileged(request.getHeader(TIMING_HEADER))) {
+            SnapTiming.start(true);
+        } else if (properties.getSampleRate() > 0 && log.isDebugEnabled()
+                && ThreadLocalRandom.current().nextDouble() < properties.getSampleRate()) {
+            SnapTiming.start(false);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        SnapTiming timing = SnapTiming.current();
+        if (timing == null) {
+            return;
+        }
+        SnapTiming.clear();
+        log.debug("{} {} -> {} [{}]", request.getMethod(), request.getRequestURI(), response.getStatus(),
+                timing.toHeader());
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        SnapTiming.clear();
+    }
+
+    private boolean isPrivileged(String token) {
+        String expected = properties.getToken();
+        if (token == null || expected == null || expected.isBlank()) {
+            return false;
+        }
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), expected.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.tivit.snap_api.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snap-import",
+        "snap.api.warmup.enabled=false",
+        "snap.api.ingest.spill-directory=target/snap-ingest",
+        "snap.api.imports.chunk-size=2",
+        "snap.api.imports.max-record-size=64B"
+})
+@AutoConfigureMockMvc
+class SnapImportTest {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void oversizedRecordStopsTheImportAndTheResumeSkipsWhatWasCommitted() throws Exception {
+        long before = count();
+        String head = records("Ana", "Bia") + "{nome}\n" + records("Caio", "Duda");
+
+        mvc.perform(post("/api/clientes/_import").param("importId", "clientes-1")
+                        .contentType(NDJSON)
+                        .content(head + "{\"nome\":\"" + "E".repeat(80) + "\"}\n"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/clientes/_import/clientes-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.checkpoint").value(5))
+                .andExpect(jsonPath("$.imported").value(4))
+                .andExpect(jsonPath("$.failed").value(1));
+
+        String fixed = head + records("Eva");
+        mvc.perform(post("/api/clientes/_import").param("importId", "clientes-1")
+                        .contentType(NDJSON)
+                        .content(fixed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.imported").value(5))
+                .andExpect(jsonPath("$.failed").value(1));
+        assertThat(count()).isEqualTo(before + 5);
+        assertThat(jdbcTemplate.queryForObject(
+                "select errors from snap_import_checkpoint where import_id = 'clientes-1'", String.class))
+                .contains("Invalid JSON record");
+
+        mvc.perform(post("/api/clientes/_import").param("importId", "clientes-1")
+                        .contentType(NDJSON)
+                        .content(fixed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.errors[0].record").value(3));
+        assertThat(count()).isEqualTo(before + 5);
+    }
+
+    @Test
+    void unknownCharsetIsRejected() throws Exception {
+        long before = count();
+        mvc.perform(post("/api/clientes/_import")
+                        .header("Content-Type", NDJSON + ";charset=no-such-charset")
+                        .content(records("Fabio")))
+                .andExpect(status().isBadRequest());
+        assertThat(count()).isEqualTo(before);
+    }
+
+    private long count() {
+        return jdbcTemplate.queryForObject("select count(*) from cliente", Long.class);
+    }
+
+    private static String records(String... nomes) {
+        StringBuilder body = new StringBuilder();
+        for (String nome : nomes) {
+            body.append("{\"nome\":\"").append(nome).append("\"}\n");
+        }
+        return body.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.tivit.snap_api.rest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snap-batch",
+        "snap.api.warmup.enabled=false",
+        "snap.api.ingest.spill-directory=target/snap-ingest"
+})
+@AutoConfigureMockMvc
+class SnapAtomicBatchTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void failedReadsLeaveTheWritesToCommit() throws Exception {
+        mvc.perform(post("/api/_batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"atomic": true, "operations": [
+                                  {"method": "POST", "resource": "clientes", "body": {"nome": "Carla"}},
+                                  {"method": "GET", "resource": "clientes", "query": {"sort": "naoExiste"}},
+                                  {"method": "POST", "resource": "clientes", "body": {"nome": "Davi"}}
+                                ]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[1].status").value(500))
+                .andExpect(jsonPath("$.results[2].status").value(201));
+        assertThat(jdbcTemplate.queryForList("select nome from cliente", String.class))
+                .contains("Carla", "Davi");
+    }
+
+    @Test
+    void failedWritesRollBackTheBatch() throws Exception {
+        mvc.perform(post("/api/_batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"atomic": true, "operations": [
+                                  {"method": "POST", "resource": "clientes", "body": {"nome": "Elisa"}},
+                                  {"method": "PUT", "resource": "clientes", "body": {"nome": "Fabio"}},
+                                  {"method": "POST", "resource": "clientes", "body": {"nome": "Gil"}}
+                                ]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[2].status").value(424));
+        assertThat(jdbcTemplate.queryForList("select nome from cliente", String.class))
+                .doesNotContain("Elisa", "Gil");
+    }
+}
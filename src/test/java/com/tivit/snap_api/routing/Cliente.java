@@ -0,0 +1,27 @@
+package com.tivit.snap_api.routing;
+
+import com.tivit.snap_api.annotations.SnapResource;
+import com.tivit.snap_api.enums.Endpoint;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+@SnapResource(
+        path = "/clientes",
+        expose = {Endpoint.GET_ALL, Endpoint.CREATE, Endpoint.EDIT, Endpoint.DELETE},
+        syncField = "atualizadoEm"
+)
+@Entity
+@Data
+public class Cliente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String nome;
+
+    private Long atualizadoEm;
+}
@@ -0,0 +1,84 @@
+package com.tivit.snap_api.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The replica is the primary database opened by a user that can only SELECT, so a write that runs
+ * on a replica connection fails and the PUT or DELETE answers 500.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snap-primary;"
+                + "INIT=CREATE USER IF NOT EXISTS leitor PASSWORD 'leitor'\\\\;GRANT SELECT ON SCHEMA PUBLIC TO leitor",
+        "snap.api.datasource.replicas[0].url=jdbc:h2:mem:snap-primary",
+        "snap.api.datasource.replicas[0].username=leitor",
+        "snap.api.datasource.replicas[0].password=leitor",
+        "snap.api.warmup.enabled=false",
+        "snap.api.ingest.spill-directory=target/snap-ingest"
+})
+@AutoConfigureMockMvc
+class SnapReplicaWriteTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void updateAndDeleteRunOnThePrimary() throws Exception {
+        long id = create("Ana");
+
+        mvc.perform(put("/api/clientes/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Ana Maria\"}"))
+                .andExpect(status().isOk());
+        assertThat(jdbcTemplate.queryForObject("select nome from cliente where id = ?", String.class, id))
+                .isEqualTo("Ana Maria");
+
+        mvc.perform(delete("/api/clientes/{id}", id))
+                .andExpect(status().isNoContent());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cliente where id = ?", Long.class, id))
+                .isZero();
+
+        mvc.perform(delete("/api/clientes/{id}", id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void batchWritesRunOnThePrimary() throws Exception {
+        long id = create("Bruno");
+
+        mvc.perform(post("/api/_batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"operations": [
+                                  {"method": "PUT", "resource": "clientes", "id": "%d", "body": {"nome": "Bruno Lima"}},
+                                  {"method": "DELETE", "resource": "clientes", "id": "%d"}
+                                ]}""".formatted(id, id)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[1].status").value(204));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cliente where id = ?", Long.class, id))
+                .isZero();
+    }
+
+    private long create(String nome) throws Exception {
+        String response = mvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"" + nome + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Long.parseLong(response.replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+}